@@ -0,0 +1,41 @@
+package com.lwohvye.bench;
+
+import java.util.Random;
+
+// 基准测试的输入分布。固定种子，保证各变体、各次运行拿到的输入一致
+public enum Distribution {
+    // 均匀随机
+    RANDOM,
+    // 已升序
+    SORTED,
+    // 已降序
+    REVERSED,
+    // 大量重复：取值只有 16 种
+    DUPLICATES;
+
+    public static final long SEED = 0x5EED_2022L;
+
+    public int[] ints(int size) {
+        var random = new Random(SEED);
+        var nums = new int[size];
+        switch (this) {
+            case RANDOM -> {
+                for (int i = 0; i < size; i++)
+                    nums[i] = random.nextInt();
+            }
+            case SORTED -> {
+                for (int i = 0; i < size; i++)
+                    nums[i] = i;
+            }
+            case REVERSED -> {
+                for (int i = 0; i < size; i++)
+                    nums[i] = size - i;
+            }
+            case DUPLICATES -> {
+                for (int i = 0; i < size; i++)
+                    nums[i] = random.nextInt(16);
+            }
+        }
+        return nums;
+    }
+}
@@ -0,0 +1,50 @@
+package com.lwohvye.str;
+
+import com.lwohvye.bench.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// SearchStr.kmp 与 kmp2 的对比。模式串取原串末尾，保证匹配位置靠后、基本扫描整个原串
+// 字符集越小，失配回退越频繁
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchStrBenchmark {
+
+    @Param({"1000", "100000"})
+    int textLength;
+
+    @Param({"16", "256"})
+    int patternLength;
+
+    @Param({"2", "26"})
+    int alphabet;
+
+    private String text;
+    private String pattern;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(Distribution.SEED);
+        var chars = new char[textLength];
+        for (int i = 0; i < textLength; i++)
+            chars[i] = (char) ('a' + random.nextInt(alphabet));
+        text = new String(chars);
+        pattern = text.substring(textLength - Math.min(patternLength, textLength));
+    }
+
+    @Benchmark
+    public int kmp() {
+        return SearchStr.kmp(text, pattern);
+    }
+
+    @Benchmark
+    public int kmp2() {
+        return SearchStr.kmp2(text, pattern);
+    }
+}
@@ -0,0 +1,63 @@
+package com.lwohvye.table.array;
+
+import com.lwohvye.bench.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// SortArray.parallelSort 在不同并行度下的加速比，以及与 Arrays.parallelSort（使用公共池）、单线程 introSort 的对比
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelSortBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+    @Param({"RANDOM", "DUPLICATES"})
+    Distribution distribution;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    private final SortArray sortArray = new SortArray();
+    private ForkJoinPool pool;
+    private int[] source;
+    private int[] nums;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        source = distribution.ints(size);
+        nums = new int[size];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] parallelSort() {
+        System.arraycopy(source, 0, nums, 0, size);
+        return sortArray.parallelSort(nums, pool, 1 << 13);
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        System.arraycopy(source, 0, nums, 0, size);
+        Arrays.parallelSort(nums);
+        return nums;
+    }
+
+    @Benchmark
+    public int[] introSort() {
+        System.arraycopy(source, 0, nums, 0, size);
+        return sortArray.introSort(nums, 0, size - 1);
+    }
+}
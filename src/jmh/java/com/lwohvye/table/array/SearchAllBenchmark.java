@@ -0,0 +1,64 @@
+package com.lwohvye.table.array;
+
+import com.lwohvye.bench.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// SearchArray.BinarySearch.searchAll 的两种策略：交错二分与归并扫描
+// searchAll 对有序的查询按 m·log n >= n 选择归并扫描，这里在同样的有序查询上同时测量自动选择的结果与两种策略本身，
+// 对比不同的批量大小（稠密程度）即可看出切换点是否合适。无序的查询只能走交错二分，见 SearchArrayBenchmark.searchAll
+// 每次调用查找整批，分数为整批的耗时
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchAllBenchmark {
+
+    @Param({"100000", "10000000"})
+    int size;
+
+    // 有序查询的个数，跨过两种数组大小下的切换点（约 n / log n）
+    @Param({"1024", "8192", "65536", "524288", "1048576"})
+    int batch;
+
+    private SearchArray.BinarySearch binarySearch;
+    private int[] nums;
+    private int[] queries;
+    private int[] result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        binarySearch = new SearchArray().new BinarySearch();
+        nums = Distribution.RANDOM.ints(size);
+        Arrays.sort(nums);
+        // 一半取自数组本身，一半为随机值，排序后作为一批有序的查询
+        var random = new Random(Distribution.SEED);
+        queries = new int[batch];
+        for (int i = 0; i < batch; i++)
+            queries[i] = (i & 1) == 0 ? nums[random.nextInt(size)] : random.nextInt();
+        Arrays.sort(queries);
+        result = new int[batch];
+    }
+
+    @Benchmark
+    public int[] searchAll() {
+        return binarySearch.searchAll(nums, queries);
+    }
+
+    @Benchmark
+    public int[] interleaved() {
+        binarySearch.interleavedSearch(nums, queries, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] mergeWalk() {
+        binarySearch.mergeWalk(nums, queries, result);
+        return result;
+    }
+}
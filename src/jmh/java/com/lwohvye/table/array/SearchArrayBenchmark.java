@@ -0,0 +1,106 @@
+package com.lwohvye.table.array;
+
+import com.lwohvye.bench.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// SearchArray.BinarySearch 各变体与 EytzingerIndex、LearnedIndex 的对比，每次调用执行 QUERIES 次查找
+// 查找值取自数组本身，并混入一半未命中的值
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchArrayBenchmark {
+
+    static final int QUERIES = 1024;
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"RANDOM", "DUPLICATES"})
+    Distribution distribution;
+
+    private SearchArray.BinarySearch binarySearch;
+    private SearchArray.EytzingerIndex eytzingerIndex;
+    private SearchArray.LearnedIndex learnedIndex;
+    private int[] nums;
+    private int[] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        binarySearch = new SearchArray().new BinarySearch();
+        nums = distribution.ints(size);
+        Arrays.sort(nums);
+        eytzingerIndex = new SearchArray.EytzingerIndex(nums);
+        learnedIndex = new SearchArray.LearnedIndex(nums);
+        var random = new Random(Distribution.SEED);
+        queries = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++)
+            queries[i] = (i & 1) == 0 ? nums[random.nextInt(size)] : random.nextInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int binarySearch() {
+        var sum = 0;
+        for (var query : queries)
+            sum += binarySearch.binarySearch(nums, query);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int binarySearch0() {
+        var sum = 0;
+        for (var query : queries)
+            sum += binarySearch.binarySearch0(nums, 0, size - 1, query);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int arraysBinarySearch() {
+        var sum = 0;
+        for (var query : queries)
+            sum += binarySearch.binarySearch2(nums, query);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int eytzingerSearch() {
+        var sum = 0;
+        for (var query : queries)
+            sum += eytzingerIndex.search(query);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int[] searchAll() {
+        return binarySearch.searchAll(nums, queries);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int interpolationSearch() {
+        var sum = 0;
+        for (var query : queries)
+            sum += binarySearch.interpolationSearch(nums, query);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int learnedIndex() {
+        var sum = 0;
+        for (var query : queries)
+            sum += learnedIndex.search(query);
+        return sum;
+    }
+}
@@ -0,0 +1,89 @@
+package com.lwohvye.table.array;
+
+import com.lwohvye.bench.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// SortArray.quickSort 三种分区方式、introSort、radixSort 与 Arrays.sort 的对比
+// 拷贝输入的开销计入每次调用，各变体相同，不影响比较
+// partition1/partition2 在有序、重复数据上会退化为 n^2、递归深度为 n，所以加大了线程栈
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+public class SortArrayBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "DUPLICATES"})
+    Distribution distribution;
+
+    private final SortArray sortArray = new SortArray();
+    private int[] source;
+    private int[] nums;
+
+    @FunctionalInterface
+    interface Partition {
+        int partition(int[] nums, int start, int end);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = distribution.ints(size);
+        nums = new int[size];
+    }
+
+    @Benchmark
+    public int[] quickSortPartition() {
+        System.arraycopy(source, 0, nums, 0, size);
+        return sortArray.quickSort(nums, 0, size - 1);
+    }
+
+    @Benchmark
+    public int[] quickSortPartition1() {
+        System.arraycopy(source, 0, nums, 0, size);
+        quickSort(nums, 0, size - 1, sortArray::partition1);
+        return nums;
+    }
+
+    @Benchmark
+    public int[] quickSortPartition2() {
+        System.arraycopy(source, 0, nums, 0, size);
+        quickSort(nums, 0, size - 1, sortArray::partition2);
+        return nums;
+    }
+
+    @Benchmark
+    public int[] introSort() {
+        System.arraycopy(source, 0, nums, 0, size);
+        return sortArray.introSort(nums, 0, size - 1);
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        System.arraycopy(source, 0, nums, 0, size);
+        return sortArray.radixSort(nums);
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        System.arraycopy(source, 0, nums, 0, size);
+        Arrays.sort(nums);
+        return nums;
+    }
+
+    // 与 SortArray.quickSort 相同的递归结构，只是分区方式可替换
+    // partition2 会读取 start + 1，所以单个元素的区间不再分区
+    private static void quickSort(int[] nums, int start, int end, Partition partition) {
+        if (start >= end)
+            return;
+        var index = partition.partition(nums, start, end);
+        quickSort(nums, start, index - 1, partition);
+        quickSort(nums, index + 1, end, partition);
+    }
+}
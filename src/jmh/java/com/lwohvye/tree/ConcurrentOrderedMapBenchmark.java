@@ -0,0 +1,113 @@
+package com.lwohvye.tree;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 多线程读写吞吐量：ConcurrentSkipList 与加全局锁的 BinarySearchTree，以 JDK 的 ConcurrentSkipListMap 为参照
+// 每组 3 个读线程、1 个写线程。写线程翻转随机key的存在性：存在则删除，不存在则插入，
+// 每次写都会链入或摘除节点，key的个数保持在一半左右。线程数可用 -tg 调整，例如 -tg 7,1
+// key 预先装箱并打乱，避免 BinarySearchTree 退化，也避免测量装箱开销
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentOrderedMapBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    private Integer[] keys;
+    private ConcurrentSkipList<Integer, Integer> skipList;
+    private BinarySearchTree<Integer, Integer> lockedTree;
+    private ConcurrentSkipListMap<Integer, Integer> jdkSkipList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 只有一半的key预先插入，读操作命中率约为50%
+        keys = new Integer[size * 2];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = i;
+        var random = new Random(0x5EED_2022L);
+        for (int i = keys.length - 1; i > 0; i--) {
+            var j = random.nextInt(i + 1);
+            var tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        skipList = new ConcurrentSkipList<>();
+        lockedTree = new BinarySearchTree<>();
+        jdkSkipList = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < size; i++) {
+            skipList.insert(keys[i], keys[i]);
+            lockedTree.insert(keys[i], keys[i]);
+            jdkSkipList.put(keys[i], keys[i]);
+        }
+    }
+
+    private Integer randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    @Group("skipList")
+    @GroupThreads(3)
+    public Integer skipListRead() {
+        return skipList.search(randomKey());
+    }
+
+    @Benchmark
+    @Group("skipList")
+    @GroupThreads(1)
+    public void skipListWrite() {
+        var key = randomKey();
+        if (skipList.contain(key))
+            skipList.remove(key);
+        else
+            skipList.insert(key, key);
+    }
+
+    @Benchmark
+    @Group("lockedTree")
+    @GroupThreads(3)
+    public Integer lockedTreeRead() {
+        var key = randomKey();
+        synchronized (lockedTree) {
+            return lockedTree.search(key);
+        }
+    }
+
+    @Benchmark
+    @Group("lockedTree")
+    @GroupThreads(1)
+    public void lockedTreeWrite() {
+        var key = randomKey();
+        synchronized (lockedTree) {
+            if (lockedTree.contain(key))
+                lockedTree.remove(key);
+            else
+                lockedTree.insert(key, key);
+        }
+    }
+
+    @Benchmark
+    @Group("jdkSkipList")
+    @GroupThreads(3)
+    public Integer jdkSkipListRead() {
+        return jdkSkipList.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("jdkSkipList")
+    @GroupThreads(1)
+    public void jdkSkipListWrite() {
+        var key = randomKey();
+        if (jdkSkipList.remove(key) == null)
+            jdkSkipList.put(key, key);
+    }
+}
@@ -0,0 +1,144 @@
+package com.lwohvye.graph;
+
+import com.lwohvye.table.array.ConcurrentUnionFind;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// 并行求无向图的连通分量
+// 输入为边表（src[i] -- dst[i]，或由 (int, int) 对组成的文件），输出每个顶点的连通分量编号，编号连续，从0开始。
+//  1、边按区间切分给 ForkJoinPool 中的任务，超过阈值的区间一分为二，各任务在同一个无锁并查集上合并
+//     若每个分区各建一个 UnionFind 再两两合并，每个分区都需要 O(n) 的数组，顶点数大时内存无法承受，共享一个无锁并查集则只需一份
+//  2、所有边处理完后，并行地求出每个顶点的根
+//  3、分块统计根的个数，求前缀和，得到每个根的编号，再并行地把根的编号写给各顶点
+public class ConnectedComponents {
+    private static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int threshold; // 单个任务处理的元素个数，不超过该值时不再拆分
+
+    public ConnectedComponents() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ConnectedComponents(ForkJoinPool pool, int threshold) {
+        if (threshold <= 0)
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    // 边表 src[i] -- dst[i]，顶点编号为 [0, vertexCount)
+    public int[] label(int vertexCount, int[] src, int[] dst) {
+        if (src.length != dst.length)
+            throw new IllegalArgumentException("src and dst differ in length: " + src.length + " != " + dst.length);
+        var unionFind = new ConcurrentUnionFind(vertexCount);
+        forEach(0, src.length, i -> unionFind.union(src[i], dst[i]));
+        return denseLabels(unionFind);
+    }
+
+    // 边存放在文件中，每条边为两个int（大端序），共8字节。文件按不超过 2GB 的块映射
+    public int[] label(int vertexCount, Path edgeFile) throws IOException {
+        var unionFind = new ConcurrentUnionFind(vertexCount);
+        try (var channel = FileChannel.open(edgeFile, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size % 8 != 0)
+                throw new IllegalArgumentException("edge file size is not a multiple of 8: " + size);
+            // 每块的大小为8的倍数，保证边不会跨块
+            final long chunk = Integer.MAX_VALUE & ~7L;
+            for (long position = 0; position < size; position += chunk) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunk, size - position));
+                forEach(0, buffer.limit() / 8, i -> unionFind.union(buffer.getInt(i * 8), buffer.getInt(i * 8 + 4)));
+            }
+        }
+        return denseLabels(unionFind);
+    }
+
+    private int[] denseLabels(ConcurrentUnionFind unionFind) {
+        var n = unionFind.size();
+        var labels = new int[n];
+        // 各顶点的根
+        forEach(0, n, i -> labels[i] = unionFind.find(i));
+
+        // 分块统计根的个数，前缀和即为每块中第一个根的编号。threshold 可能接近 Integer.MAX_VALUE，块数与块的边界不能按 int 相乘、相加
+        var blocks = n == 0 ? 0 : (n - 1) / threshold + 1;
+        var firstLabel = new int[blocks + 1];
+        forEachBlock(blocks, block -> {
+            var roots = 0;
+            for (int i = blockStart(block, n), end = blockStart(block + 1, n); i < end; i++) {
+                if (labels[i] == i)
+                    roots++;
+            }
+            firstLabel[block + 1] = roots;
+        });
+        for (int block = 0; block < blocks; block++)
+            firstLabel[block + 1] += firstLabel[block];
+
+        // 根的编号 = 所在块的首个编号 + 块内排在它之前的根的个数。根在数组中存为 -(编号 + 1)，与顶点下标区分
+        forEachBlock(blocks, block -> {
+            var label = firstLabel[block];
+            for (int i = blockStart(block, n), end = blockStart(block + 1, n); i < end; i++) {
+                if (labels[i] == i)
+                    labels[i] = -(label++) - 1;
+            }
+        });
+        // 非根顶点取其根的编号。根已被改写为负数，不会被误读
+        forEach(0, n, i -> {
+            var root = labels[i];
+            if (root >= 0)
+                labels[i] = -labels[root] - 1;
+        });
+        forEach(0, n, i -> {
+            if (labels[i] < 0)
+                labels[i] = -labels[i] - 1;
+        });
+        return labels;
+    }
+
+    // 第block块的起始下标，不超过n
+    private int blockStart(int block, int n) {
+        return (int) Math.min(n, (long) block * threshold);
+    }
+
+    private void forEach(int from, int to, IntConsumer action) {
+        pool.invoke(new RangeAction(from, to, threshold, action));
+    }
+
+    // 对每个块执行action。每块已有 threshold 个元素，按粒度1拆分，使每块成为一个单独的任务
+    // 块数不超过 threshold，若仍按 threshold 拆分，所有块会落在同一个任务中串行执行
+    private void forEachBlock(int blocks, IntConsumer action) {
+        pool.invoke(new RangeAction(0, blocks, 1, action));
+    }
+
+    // 对 [from, to) 中的每个下标执行action，区间超过阈值时对半拆分
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, threshold;
+        private final IntConsumer action;
+
+        private RangeAction(int from, int to, int threshold, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++)
+                    action.accept(i);
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, threshold, action), new RangeAction(mid, to, threshold, action));
+        }
+    }
+}
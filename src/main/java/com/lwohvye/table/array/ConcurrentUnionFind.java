@@ -0,0 +1,100 @@
+package com.lwohvye.table.array;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// 无锁并查集，可被多个线程同时 union、isConnected
+// UnionFind 在 find 的路径压缩中会写 parent，rank 与 parent 也要同时修改，多线程下无法直接使用。这里：
+//  parent 使用 AtomicIntegerArray，所有修改都是 CAS。
+//  合并：只把根节点挂到另一个根节点下，CAS 的预期值为其自身，保证挂上去的时刻它仍然是根。
+//      秩需要与 parent 一起原子地修改，所以不用按秩合并，改为按一个固定的伪随机优先级，优先级低的根挂到高的下面（随机合并，期望树高 O(log n)）。
+//      优先级是严格的全序，不会出现两个根互相指向而成环。
+//  路径减半：查找时把当前节点指向其祖父节点。CAS 失败说明父节点已被别的线程改为更高的祖先，忽略即可。
+//  isConnected：两次 find 之间集合可能被合并，若第一个根在第二次 find 之后仍是根，说明那一刻两者确实不连通，否则重试。
+// 参考 Jayanti、Tarjan《Concurrent Disjoint Set Union》，以及 Anderson、Woll 的无等待并查集。
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent; // parent[i]表示第i个元素所指向的父节点
+    private final int count;    // 数据个数
+    private final AtomicInteger part; // 独立集合的个数
+
+    public ConcurrentUnionFind(int count) {
+        this.parent = new AtomicIntegerArray(count);
+        this.count = count;
+        this.part = new AtomicInteger(count);
+        for (int i = 0; i < count; ++i)
+            parent.set(i, i);
+    }
+
+    // 查找元素p所在集合的根，同时路径减半
+    public int find(int p) {
+        assert (p >= 0 && p < count);
+        while (true) {
+            var pParent = parent.get(p);
+            if (pParent == p)
+                return p;
+            var grand = parent.get(pParent);
+            if (pParent != grand)
+                parent.compareAndSet(p, pParent, grand);
+            p = grand;
+        }
+    }
+
+    // 查看元素p和元素q是否所属一个集合
+    public boolean isConnected(int p, int q) {
+        while (true) {
+            var pRoot = find(p);
+            var qRoot = find(q);
+            if (pRoot == qRoot)
+                return true;
+            // 找到qRoot时，pRoot仍是根，两者此刻分属不同集合
+            if (parent.get(pRoot) == pRoot)
+                return false;
+        }
+    }
+
+    // 合并元素p和元素q所属的集合，返回是否由本次调用完成了合并
+    public boolean union(int p, int q) {
+        while (true) {
+            var pRoot = find(p);
+            var qRoot = find(q);
+            if (pRoot == qRoot)
+                return false;
+            // 优先级低的挂到优先级高的下面。CAS失败说明该根已被其他线程挂走，重新查找
+            if (lowerPriority(pRoot, qRoot)) {
+                if (parent.compareAndSet(pRoot, pRoot, qRoot)) {
+                    part.decrementAndGet();
+                    return true;
+                }
+            } else if (parent.compareAndSet(qRoot, qRoot, pRoot)) {
+                part.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // 独立集合的个数
+    public int componentCount() {
+        return part.get();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // 由下标散列出的伪随机优先级，相同时按下标比较，构成严格的全序
+    private static boolean lowerPriority(int a, int b) {
+        var ha = mix(a);
+        var hb = mix(b);
+        return ha != hb ? ha < hb : a < b;
+    }
+
+    // murmur3 的 fmix32
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
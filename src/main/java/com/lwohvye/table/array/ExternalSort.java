@@ -0,0 +1,248 @@
+package com.lwohvye.table.array;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// 外部排序：对放不进堆内存的、由定长 int 或 long 记录组成的文件排序
+//  1、生成顺串：按内存预算，每次顺序读入一段记录，用 SortArray.introSort 原地排序，顺序写入一个临时文件。
+//  2、k路归并：每个顺串配一个固定大小的读缓冲区，经 FileChannel 顺序读取，读完再填充；
+//     用一个存放顺串编号的小顶堆（基本类型数组）每次取出最小的记录，顺序写入输出文件。
+//     路数由内存预算决定：各读缓冲区之和不超过 memoryBudget，且不超过 MAX_FAN_IN（同时打开的文件数）。
+//     顺串多于路数时，先把最前面的若干个顺串归并为一个更长的顺串，追加到末尾，直到剩下的顺串能一次归并。
+// 内存：生成顺串时为一个 memoryBudget 字节的记录数组，归并时为各顺串的读缓冲区，另有一个固定大小（IO_BUFFER_SIZE）的 I/O 缓冲区。
+// 顺串按缓冲区分批读取，中间顺串的大小不受限制。所有读写都是顺序的。记录的字节序默认为大端序。
+public class ExternalSort {
+    private static final int IO_BUFFER_SIZE = 1 << 20;
+    private static final int MIN_RUN_BUFFER_SIZE = 1 << 16; // 归并时每个顺串的读缓冲区的最小大小，预算允许时再增大
+    private static final int MAX_FAN_IN = 1 << 9;
+    private static final long MAX_RUN_BYTES = Integer.MAX_VALUE & ~7L; // 记录数组的长度不能超过 int
+
+    private final long memoryBudget; // 生成顺串、归并时所用缓冲区的字节数上限
+    private final Path tempDir;
+    private final ByteOrder order;
+    private final SortArray sortArray = new SortArray();
+
+    public ExternalSort(long memoryBudget, Path tempDir) {
+        this(memoryBudget, tempDir, ByteOrder.BIG_ENDIAN);
+    }
+
+    public ExternalSort(long memoryBudget, Path tempDir, ByteOrder order) {
+        if (memoryBudget < Long.BYTES)
+            throw new IllegalArgumentException("memory budget too small: " + memoryBudget);
+        this.memoryBudget = Math.min(memoryBudget, MAX_RUN_BYTES);
+        this.tempDir = tempDir;
+        this.order = order;
+    }
+
+    // 对由 int 记录组成的input排序，结果写入output
+    public void sortInts(Path input, Path output) throws IOException {
+        sort(input, output, Integer.BYTES);
+    }
+
+    // 对由 long 记录组成的input排序，结果写入output
+    public void sortLongs(Path input, Path output) throws IOException {
+        sort(input, output, Long.BYTES);
+    }
+
+    private void sort(Path input, Path output, int width) throws IOException {
+        var io = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).order(order);
+        var runs = new ArrayList<Path>();
+        try {
+            createRuns(input, width, io, runs);
+            if (runs.size() == 1) {
+                Files.move(runs.remove(0), output, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            }
+            // 路数至少为2，读缓冲区的大小为8的倍数，保证记录不会跨两次读取
+            var fanIn = (int) Math.max(2, Math.min(MAX_FAN_IN, memoryBudget / MIN_RUN_BUFFER_SIZE));
+            var bufferSize = (int) Math.min(IO_BUFFER_SIZE, Math.max(Long.BYTES, (memoryBudget / fanIn) & ~7L));
+            var inputs = new ByteBuffer[Math.min(fanIn, runs.size())];
+            for (int i = 0; i < inputs.length; i++)
+                inputs[i] = ByteBuffer.allocateDirect(bufferSize).order(order);
+
+            while (runs.size() > fanIn) {
+                var group = new ArrayList<>(runs.subList(0, fanIn));
+                var run = Files.createTempFile(tempDir, "run", ".bin");
+                runs.add(run);
+                merge(group, run, width, inputs, io);
+                runs.subList(0, fanIn).clear();
+                for (var path : group)
+                    Files.delete(path);
+            }
+            merge(runs, output, width, inputs, io);
+        } finally {
+            for (var run : runs)
+                Files.deleteIfExists(run);
+        }
+    }
+
+    // 生成顺串，每个顺串写入一个临时文件
+    private void createRuns(Path input, int width, ByteBuffer io, List<Path> runs) throws IOException {
+        try (var in = FileChannel.open(input, StandardOpenOption.READ)) {
+            var size = in.size();
+            if (size % width != 0)
+                throw new IllegalArgumentException("file size " + size + " is not a multiple of record width " + width);
+            var runLength = (int) Math.min(memoryBudget / width, size / width);
+            int[] ints = width == Integer.BYTES ? new int[runLength] : null;
+            long[] longs = width == Long.BYTES ? new long[runLength] : null;
+            var remaining = size / width;
+            while (remaining > 0) {
+                var n = (int) Math.min(runLength, remaining);
+                remaining -= n;
+                var run = Files.createTempFile(tempDir, "run", ".bin");
+                runs.add(run);
+                try (var out = FileChannel.open(run, StandardOpenOption.WRITE)) {
+                    if (ints != null) {
+                        readInts(in, io, ints, n);
+                        sortArray.introSort(ints, 0, n - 1);
+                        writeInts(out, io, ints, n);
+                    } else {
+                        readLongs(in, io, longs, n);
+                        sortArray.introSort(longs, 0, n - 1);
+                        writeLongs(out, io, longs, n);
+                    }
+                }
+            }
+        }
+    }
+
+    // k路归并，inputs[i] 为第i个顺串的读缓冲区，io 为输出缓冲区
+    private void merge(List<Path> runs, Path output, int width, ByteBuffer[] inputs, ByteBuffer io) throws IOException {
+        var k = runs.size();
+        var channels = new FileChannel[k];
+        var heads = new long[k]; // 各顺串当前的记录。int 记录也存为 long，比较结果相同
+        var heap = new int[k];   // 小顶堆，存放顺串编号，按 heads 比较
+        var heapSize = 0;
+        try (var out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < k; i++) {
+                channels[i] = FileChannel.open(runs.get(i), StandardOpenOption.READ);
+                inputs[i].clear().flip();
+                if (refill(channels[i], inputs[i])) {
+                    heads[i] = read(inputs[i], width);
+                    heap[heapSize++] = i;
+                }
+            }
+            for (int i = (heapSize >>> 1) - 1; i >= 0; i--)
+                siftDown(heap, heapSize, heads, i);
+
+            io.clear();
+            while (heapSize > 0) {
+                var run = heap[0];
+                if (io.remaining() < width)
+                    flush(out, io);
+                if (width == Integer.BYTES)
+                    io.putInt((int) heads[run]);
+                else
+                    io.putLong(heads[run]);
+                if (refill(channels[run], inputs[run]))
+                    heads[run] = read(inputs[run], width);
+                else
+                    heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, heads, 0);
+            }
+            flush(out, io);
+        } finally {
+            for (var channel : channels) {
+                if (channel != null)
+                    channel.close();
+            }
+        }
+    }
+
+    // buffer读完时从channel中顺序读入下一批记录，顺串已读完时返回false
+    // 缓冲区的容量与文件大小都是记录宽度的倍数，每批读满缓冲区或读到文件末尾，不会读到半条记录
+    private static boolean refill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.hasRemaining())
+            return true;
+        buffer.clear();
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) ;
+        buffer.flip();
+        return buffer.hasRemaining();
+    }
+
+    private static long read(ByteBuffer buffer, int width) {
+        return width == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+    }
+
+    private static void siftDown(int[] heap, int size, long[] heads, int i) {
+        var run = heap[i];
+        var head = heads[run];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && heads[heap[child + 1]] < heads[heap[child]])
+                child++;
+            if (heads[heap[child]] >= head)
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = run;
+    }
+
+    // 从in中顺序读入n个int
+    private static void readInts(FileChannel in, ByteBuffer io, int[] nums, int n) throws IOException {
+        for (int done = 0; done < n; ) {
+            var count = Math.min(n - done, io.capacity() / Integer.BYTES);
+            fill(in, io, count * Integer.BYTES);
+            io.asIntBuffer().get(nums, done, count);
+            done += count;
+        }
+    }
+
+    private static void readLongs(FileChannel in, ByteBuffer io, long[] nums, int n) throws IOException {
+        for (int done = 0; done < n; ) {
+            var count = Math.min(n - done, io.capacity() / Long.BYTES);
+            fill(in, io, count * Long.BYTES);
+            io.asLongBuffer().get(nums, done, count);
+            done += count;
+        }
+    }
+
+    // 读满bytes个字节，读完后io处于可读状态
+    private static void fill(FileChannel in, ByteBuffer io, int bytes) throws IOException {
+        io.clear().limit(bytes);
+        while (io.hasRemaining()) {
+            if (in.read(io) < 0)
+                throw new IOException("unexpected end of file");
+        }
+        io.flip();
+    }
+
+    private static void writeInts(FileChannel out, ByteBuffer io, int[] nums, int n) throws IOException {
+        for (int done = 0; done < n; ) {
+            var count = Math.min(n - done, io.capacity() / Integer.BYTES);
+            io.clear();
+            io.asIntBuffer().put(nums, done, count);
+            io.position(count * Integer.BYTES);
+            flush(out, io);
+            done += count;
+        }
+    }
+
+    private static void writeLongs(FileChannel out, ByteBuffer io, long[] nums, int n) throws IOException {
+        for (int done = 0; done < n; ) {
+            var count = Math.min(n - done, io.capacity() / Long.BYTES);
+            io.clear();
+            io.asLongBuffer().put(nums, done, count);
+            io.position(count * Long.BYTES);
+            flush(out, io);
+            done += count;
+        }
+    }
+
+    // 写出io中已写入的内容，并清空io
+    private static void flush(FileChannel out, ByteBuffer io) throws IOException {
+        io.flip();
+        while (io.hasRemaining())
+            out.write(io);
+        io.clear();
+    }
+}
@@ -0,0 +1,147 @@
+package com.lwohvye.table.array;
+
+import java.util.Arrays;
+
+// 以稀疏的 long 为元素的并查集，元素在首次 union 时加入，数组按需扩容
+// UnionFind(int count) 要求元素为 [0, count) 的稠密下标。对于稀疏的64位ID，通常要先经过 HashMap<Long, Integer> 映射，每次查找都要装箱。
+// 这里内置一个基本类型的开放寻址散列表（线性探测）把ID映射为稠密下标，再在下标上做按大小合并与路径压缩，整个过程不产生任何对象。
+//  散列表：ids[] 存放ID，slots[] 存放对应下标 + 1，0 表示空槽，因此ID可以是任意 long 值，包括0。容量为2的幂，装载因子超过 1/2 时翻倍。
+//  parent[]、size[]：与 UnionFind 相同，按下标存放，元素个数超过容量时扩容为1.5倍。
+public class LongUnionFind {
+    private long[] ids;
+    private int[] slots;
+    private int mask;
+
+    private int[] parent; // parent[i]表示第i个元素所指向的父节点
+    private int[] size;   // size[i]表示以i为根的集合中的元素个数，只对根节点有意义
+    private int count;    // 元素个数
+    private int part;     // 独立集合的个数
+
+    public LongUnionFind() {
+        this(16);
+    }
+
+    public LongUnionFind(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        var capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        ids = new long[capacity];
+        slots = new int[capacity];
+        mask = capacity - 1;
+        parent = new int[Math.max(expectedSize, 8)];
+        size = new int[parent.length];
+    }
+
+    // 已加入的元素个数
+    public int size() {
+        return count;
+    }
+
+    // 独立集合的个数
+    public int componentCount() {
+        return part;
+    }
+
+    // 查看元素p和元素q是否所属一个集合。未加入过的元素只与自身连通
+    public boolean isConnected(long p, long q) {
+        if (p == q)
+            return true;
+        var pIndex = indexOf(p);
+        var qIndex = indexOf(q);
+        return pIndex >= 0 && qIndex >= 0 && find(pIndex) == find(qIndex);
+    }
+
+    // 元素p所在集合的元素个数，未加入过的元素为1
+    public int componentSize(long p) {
+        var index = indexOf(p);
+        return index < 0 ? 1 : size[find(index)];
+    }
+
+    // 合并元素p和元素q所属的集合，元素不存在时先加入
+    public void union(long p, long q) {
+        var pRoot = find(addIfAbsent(p));
+        var qRoot = find(addIfAbsent(q));
+        if (pRoot == qRoot)
+            return;
+        part--;
+        if (size[pRoot] < size[qRoot]) {
+            parent[pRoot] = qRoot;
+            size[qRoot] += size[pRoot];
+        } else {
+            parent[qRoot] = pRoot;
+            size[pRoot] += size[qRoot];
+        }
+    }
+
+    // 查找下标p所对应的集合编号，同时压缩路径。与 UnionFind.find 相同
+    private int find(int p) {
+        int root = p;
+        while (root != parent[root])
+            root = parent[root];
+        while (p != root) {
+            int t = parent[p];
+            parent[p] = root;
+            p = t;
+        }
+        return root;
+    }
+
+    // id对应的下标，不存在则返回-1
+    private int indexOf(long id) {
+        for (int slot = hash(id) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (ids[slot] == id)
+                return slots[slot] - 1;
+        }
+        return -1;
+    }
+
+    // id对应的下标，不存在则分配新的下标，作为独立的集合加入
+    private int addIfAbsent(long id) {
+        var slot = hash(id) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (ids[slot] == id)
+                return slots[slot] - 1;
+        }
+        var index = count++;
+        if (index == parent.length) {
+            var capacity = parent.length + (parent.length >> 1);
+            parent = Arrays.copyOf(parent, capacity);
+            size = Arrays.copyOf(size, capacity);
+        }
+        parent[index] = index;
+        size[index] = 1;
+        part++;
+        ids[slot] = id;
+        slots[slot] = index + 1;
+        if (count * 2 > slots.length)
+            rehash(slots.length * 2);
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        var oldIds = ids;
+        var oldSlots = slots;
+        ids = new long[capacity];
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] == 0)
+                continue;
+            var slot = hash(oldIds[i]) & mask;
+            while (slots[slot] != 0)
+                slot = (slot + 1) & mask;
+            ids[slot] = oldIds[i];
+            slots[slot] = oldSlots[i];
+        }
+    }
+
+    // murmur3 的 fmix64，打散连续或步长固定的ID
+    private static int hash(long id) {
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        id *= 0xc4ceb9fe1a85ec53L;
+        id ^= id >>> 33;
+        return (int) id;
+    }
+}
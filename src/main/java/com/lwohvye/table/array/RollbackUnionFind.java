@@ -0,0 +1,93 @@
+package com.lwohvye.table.array;
+
+import java.util.Arrays;
+
+// 可撤销的并查集，用于离线动态连通性、假设分析（加入一批边 -> 查询 -> 撤销这批边）
+// 路径压缩会一次修改路径上的很多节点，无法廉价地撤销，所以这里只按秩合并（秩取子树节点数），不压缩路径：
+//  每次合并只修改一个根的 parent 与另一个根的 size，把被挂上去的根压入撤销栈即可。
+//  按大小合并保证树高不超过 log n，find 为 O(log n)。
+//  checkpoint() 返回当前撤销栈的高度，rollback(checkpoint) 依次弹栈恢复到该时刻，代价与撤销的合并次数成正比，与n无关。
+// 每个场景的代价为 O(k log n)，k 为该场景中的边数，而不是重建整个并查集的 O(n)。
+public class RollbackUnionFind {
+    private final int[] parent; // parent[i]表示第i个元素所指向的父节点
+    private final int[] size;   // size[i]表示以i为根的集合中的元素个数，只对根节点有意义
+    private final int count;    // 数据个数
+    private int part;           // 独立集合的个数
+
+    private int[] history = new int[16]; // 撤销栈，存放每次合并中被挂到另一个根下的那个根
+    private int top;                     // 撤销栈的高度
+
+    public RollbackUnionFind(int count) {
+        parent = new int[count];
+        size = new int[count];
+        this.count = count;
+        this.part = count;
+        for (int i = 0; i < count; ++i) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+    }
+
+    // 查找元素p所对应的集合编号，不压缩路径，O(log n)
+    public int find(int p) {
+        assert (p >= 0 && p < count);
+        while (p != parent[p])
+            p = parent[p];
+        return p;
+    }
+
+    // 查看元素p和元素q是否所属一个集合
+    public boolean isConnected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    // 合并元素p和元素q所属的集合，返回是否发生了合并。只有发生合并时才记录到撤销栈
+    public boolean union(int p, int q) {
+        int pRoot = find(p);
+        int qRoot = find(q);
+        if (pRoot == qRoot)
+            return false;
+        // 保证pRoot为节点少的一方，挂到qRoot下
+        if (size[pRoot] > size[qRoot]) {
+            var t = pRoot;
+            pRoot = qRoot;
+            qRoot = t;
+        }
+        parent[pRoot] = qRoot;
+        size[qRoot] += size[pRoot];
+        part--;
+        if (top == history.length)
+            history = Arrays.copyOf(history, top * 2);
+        history[top++] = pRoot;
+        return true;
+    }
+
+    // 独立集合的个数
+    public int componentCount() {
+        return part;
+    }
+
+    // 元素p所在集合的元素个数
+    public int componentSize(int p) {
+        return size[find(p)];
+    }
+
+    // 记录当前状态，用于之后的 rollback
+    public int checkpoint() {
+        return top;
+    }
+
+    // 撤销 checkpoint 之后的所有合并
+    // 不压缩路径，被挂上去的根的 parent 仍指向当时的另一个根，据此恢复其 size
+    public void rollback(int checkpoint) {
+        if (checkpoint < 0 || checkpoint > top)
+            throw new IllegalArgumentException("invalid checkpoint: " + checkpoint + ", current: " + top);
+        while (top > checkpoint) {
+            var child = history[--top];
+            var root = parent[child];
+            size[root] -= size[child];
+            parent[child] = child;
+            part++;
+        }
+    }
+}
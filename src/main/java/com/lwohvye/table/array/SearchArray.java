@@ -10,6 +10,10 @@ public class SearchArray {
 
     // 二分查找
     class BinarySearch {
+        private static final int INTERLEAVE = 16; // searchAll 中同时推进的查询个数
+        private static final int MERGE_WALK_FACTOR = 8; // 二分的一步与顺序扫描一个元素的代价之比，决定 searchAll 的切换点
+        private static final int MAX_INTERPOLATION_PROBES = 8; // 插值查找最多的插值次数，之后改用二分
+        private static final int INTERPOLATION_MIN_WINDOW = 64; // 窗口不超过该长度时直接二分
 
         public int binarySearch(int[] nums, int target) {
             int left = 0, right = nums.length - 1;
@@ -70,6 +74,308 @@ public class SearchArray {
             }
             return -(low + 1);  // key not found.
         }
+
+        // 第一个大于等于key的元素的下标，不存在时返回数组长度。即上面注释中的情况3
+        public int lowerBound(int[] a, int key) {
+            return SearchArray.lowerBound(a, 0, a.length, key);
+        }
+
+        // 第一个大于key的元素的下标，不存在时返回数组长度。减一即为最后一个小于等于key的元素的下标（情况2）
+        public int upperBound(int[] a, int key) {
+            int low = 0, high = a.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (a[mid] <= key)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+
+        // 等于key的元素所在的区间 [lowerBound, upperBound)，不存在时两者相等，为插入位置
+        public int[] equalRange(int[] a, int key) {
+            var low = lowerBound(a, key);
+            // 上界不会在下界之前，只在 [low, length) 中查找
+            int from = low, to = a.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (a[mid] <= key)
+                    from = mid + 1;
+                else
+                    to = mid;
+            }
+            return new int[]{low, from};
+        }
+
+        // 批量查找，结果的形式与 binarySearch0 相同：找到时为首个等于该值的下标，否则为 -(插入位置 + 1)
+        //  1、queries 有序且足够稠密（MERGE_WALK_FACTOR·m·log n >= n）时，同时顺序扫描两个数组（归并），O(n + m)，全是顺序访问。
+        //     顺序扫描每个元素不到 1ns，二分的每一步通常是一次缓存未命中，所以两者的切换点不是 m·log n = n，而要乘上这个代价比（见 SearchAllBenchmark）。
+        //  2、否则每 INTERLEAVE 个查询为一组交错地二分：同一组中各查询的循环次数只取决于n，逐层推进整组，
+        //     各查询的访存互不依赖，CPU 可以同时发出多个缓存未命中的请求，掩盖内存延迟；循环体内没有依赖比较结果的分支。
+        public int[] searchAll(int[] sortedArr, int[] queries) {
+            var n = sortedArr.length;
+            var m = queries.length;
+            var result = new int[m];
+            if (n == 0) {
+                Arrays.fill(result, -1);
+                return result;
+            }
+            if (isSorted(queries) && (long) MERGE_WALK_FACTOR * m * (32 - Integer.numberOfLeadingZeros(n)) >= n)
+                mergeWalk(sortedArr, queries, result);
+            else
+                interleavedSearch(sortedArr, queries, result);
+            return result;
+        }
+
+        // 两种策略包内可见，供基准测试在同样的输入上直接比较，确定切换点
+        void mergeWalk(int[] sortedArr, int[] queries, int[] result) {
+            var i = 0;
+            for (int q = 0; q < queries.length; q++) {
+                var key = queries[q];
+                while (i < sortedArr.length && sortedArr[i] < key)
+                    i++;
+                result[q] = i < sortedArr.length && sortedArr[i] == key ? i : -(i + 1);
+            }
+        }
+
+        // 无分支的二分：答案始终在 [base, base + len] 中，每次把len减半，共 log n 次，与查询的值无关
+        void interleavedSearch(int[] sortedArr, int[] queries, int[] result) {
+            var n = sortedArr.length;
+            var base = new int[INTERLEAVE];
+            for (int from = 0; from < queries.length; from += INTERLEAVE) {
+                var count = Math.min(INTERLEAVE, queries.length - from);
+                Arrays.fill(base, 0);
+                for (int len = n; len > 1; ) {
+                    var half = len >>> 1;
+                    for (int j = 0; j < count; j++)
+                        base[j] = sortedArr[base[j] + half] < queries[from + j] ? base[j] + half : base[j];
+                    len -= half;
+                }
+                for (int j = 0; j < count; j++) {
+                    var key = queries[from + j];
+                    var low = base[j] + (sortedArr[base[j]] < key ? 1 : 0);
+                    result[from + j] = low < n && sortedArr[low] == key ? low : -(low + 1);
+                }
+            }
+        }
+
+        // 插值查找，结果的形式与 binarySearch0 相同，找到时为首个等于key的下标
+        // 元素接近均匀分布时，按key在窗口首尾两值之间的比例估计其位置，期望 O(log log n) 次探查即可把窗口缩到很小，二分需要 log n 次。
+        // 分布不均匀时插值可能每次只缩小一点，所以最多插值 MAX_INTERPOLATION_PROBES 次，剩余的窗口用二分，最坏为 O(log n)
+        public int interpolationSearch(int[] a, int key) {
+            int low = 0, high = a.length; // 下界在 [low, high] 中
+            for (int probes = 0; probes < MAX_INTERPOLATION_PROBES && high - low > INTERPOLATION_MIN_WINDOW; probes++) {
+                long first = a[low], last = a[high - 1];
+                if (key <= first) {
+                    high = low;
+                    break;
+                }
+                if (key > last) {
+                    low = high;
+                    break;
+                }
+                // first < key <= last，估计的位置在 [low, high - 1] 中。用 double 计算，避免乘法溢出
+                var mid = low + (int) ((double) (key - first) / (last - first) * (high - 1 - low));
+                if (a[mid] < key)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            var index = SearchArray.lowerBound(a, low, high, key);
+            return index < a.length && a[index] == key ? index : -(index + 1);
+        }
+
+        private boolean isSorted(int[] a) {
+            for (int i = 1; i < a.length; i++) {
+                if (a[i - 1] > a[i])
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    // a[low, high) 中第一个大于等于key的元素的下标，已知结果在 [low, high] 中，不存在时返回high
+    static int lowerBound(int[] a, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
     }
 
+    // Eytzinger 布局（BFS 顺序）的静态查找索引，对同一个有序数组做大量查找时使用
+    // 普通二分查找在大数组上，除了最初几层，每次探查都落在不同的缓存行上，且比较结果难以预测，分支预测失败频繁。这里：
+    //  1、把有序数组按完全二叉树的层序重新排列：根在下标1，节点k的左右子节点在 2k、2k+1。
+    //     越靠近根的节点越集中在数组开头，常驻缓存；节点k往下4层的16个后代 [16k, 16k+16) 连续存放（64字节，一到两个缓存行），硬件预取更有效。
+    //  2、查找时无论比较结果如何都走到叶子，循环体只有 k = 2k + (b[k] < key)，没有依赖比较结果的分支（JIT 编译为条件传送）。
+    //     退出时k的二进制末尾连续的1表示最后几次向右走，去掉这些1及其前面的一个0，即得到首个不小于key的节点，即下界（lower bound）。
+    //  3、rank[k] 记录节点k在原有序数组中的下标，用于返回与 Arrays.binarySearch 相同形式的结果。
+    // Java 没有显式的预取指令，这里依靠布局本身让访问模式适合硬件预取。
+    public static class EytzingerIndex {
+        private final int[] keys;  // keys[1..n] 为 Eytzinger 顺序的元素，keys[0] 不使用
+        private final int[] rank;  // rank[k] 为 keys[k] 在原有序数组中的下标
+        private final int n;
+
+        // sortedArr 必须非递减。查找时下标会走到 2n+1，因此长度不能超过 2^30 - 1
+        public EytzingerIndex(int[] sortedArr) {
+            if (sortedArr.length >= 1 << 30)
+                throw new IllegalArgumentException("array too large: " + sortedArr.length);
+            n = sortedArr.length;
+            keys = new int[n + 1];
+            rank = new int[n + 1];
+            build(sortedArr, 0, 1);
+        }
+
+        // 按中序遍历依次填入有序数组的元素，返回下一个待填入元素的下标。递归深度为 log n
+        private int build(int[] sortedArr, int i, int k) {
+            if (k <= n) {
+                i = build(sortedArr, i, 2 * k);
+                keys[k] = sortedArr[i];
+                rank[k] = i++;
+                i = build(sortedArr, i, 2 * k + 1);
+            }
+            return i;
+        }
+
+        public int size() {
+            return n;
+        }
+
+        // 首个不小于key的元素在原有序数组中的下标，不存在时返回n
+        public int lowerBound(int key) {
+            var k = lowerBoundNode(key);
+            return k == 0 ? n : rank[k];
+        }
+
+        // 返回值的形式与 Arrays.binarySearch 相同：找到时返回下标，否则返回 -(插入位置 + 1)
+        // 元素各不相同时结果与 Arrays.binarySearch 完全一致；有重复元素时返回首个等于key的下标（Arrays.binarySearch 返回其中任意一个）
+        public int search(int key) {
+            var k = lowerBoundNode(key);
+            if (k == 0)
+                return -(n + 1);
+            return keys[k] == key ? rank[k] : -(rank[k] + 1);
+        }
+
+        // 首个不小于key的节点，不存在时返回0
+        private int lowerBoundNode(int key) {
+            var keys = this.keys;
+            var k = 1;
+            while (k <= n)
+                k = 2 * k + (keys[k] < key ? 1 : 0);
+            return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+        }
+    }
+
+    // 学习型索引：用分段线性函数拟合 key -> 下标，预测位置后只在误差窗口内二分，适合接近均匀分布的有序数组
+    //  1、构建：贪心地划分线段（shrinking cone）。线段以首个点 (key0, pos0) 为原点，每加入一个点 (key, pos)，
+    //     斜率需落在 [(pos - ε - pos0) / (key - key0), (pos + ε - pos0) / (key - key0)] 内，与已有的范围求交集，为空时开始新的线段。
+    //     于是每个元素的预测位置与实际位置之差不超过 ε。重复的元素只取首次出现的位置。
+    //  2、查找：在线段的起始key中二分找到所在线段（线段很少，常驻缓存），预测位置，在 [pred - ε, pred + ε + 1] 的窗口内二分，
+    //     窗口只有 2ε + 2 个元素，占两三个缓存行。
+    //  3、数组中不存在的key、大量重复元素等情况下预测可能超出窗口，此时从窗口边缘向外倍增地扩大窗口（galloping），代价与偏离的距离成对数关系。
+    public static class LearnedIndex {
+        private static final int DEFAULT_EPSILON = 16;
+
+        private final int[] nums;
+        private final int epsilon;
+        private int[] segmentKeys = new int[16];   // 各线段起点的key，递增
+        private int[] segmentStarts = new int[16]; // 各线段起点的下标
+        private double[] slopes = new double[16];  // 各线段的斜率，非负
+        private int segments;
+
+        public LearnedIndex(int[] sortedArr) {
+            this(sortedArr, DEFAULT_EPSILON);
+        }
+
+        // sortedArr 必须非递减，构建后不能再修改
+        public LearnedIndex(int[] sortedArr, int epsilon) {
+            if (epsilon < 0)
+                throw new IllegalArgumentException("epsilon must not be negative: " + epsilon);
+            this.nums = sortedArr;
+            this.epsilon = epsilon;
+            if (sortedArr.length > 0)
+                build();
+        }
+
+        private void build() {
+            long key0 = nums[0];
+            var pos0 = 0;
+            double low = 0, high = Double.POSITIVE_INFINITY; // 当前线段斜率的可行范围
+            for (int i = 1; i < nums.length; i++) {
+                if (nums[i] == nums[i - 1])
+                    continue;
+                var dx = (double) (nums[i] - key0);
+                var newLow = Math.max(low, (i - epsilon - pos0) / dx);
+                var newHigh = Math.min(high, (i + epsilon - pos0) / dx);
+                if (newLow > newHigh) {
+                    addSegment((int) key0, pos0, low, high);
+                    key0 = nums[i];
+                    pos0 = i;
+                    low = 0;
+                    high = Double.POSITIVE_INFINITY;
+                } else {
+                    low = newLow;
+                    high = newHigh;
+                }
+            }
+            addSegment((int) key0, pos0, low, high);
+        }
+
+        private void addSegment(int key, int start, double low, double high) {
+            if (segments == segmentKeys.length) {
+                segmentKeys = Arrays.copyOf(segmentKeys, segments * 2);
+                segmentStarts = Arrays.copyOf(segmentStarts, segments * 2);
+                slopes = Arrays.copyOf(slopes, segments * 2);
+            }
+            segmentKeys[segments] = key;
+            segmentStarts[segments] = start;
+            // 只有原点一个点时斜率任意，取0
+            slopes[segments] = high == Double.POSITIVE_INFINITY ? low : (low + high) / 2;
+            segments++;
+        }
+
+        public int size() {
+            return nums.length;
+        }
+
+        // 线段的个数，用于评估模型的大小
+        public int segmentCount() {
+            return segments;
+        }
+
+        // 首个不小于key的元素的下标，不存在时返回数组长度
+        public int lowerBound(int key) {
+            var n = nums.length;
+            // 所在的线段：最后一个起点不大于key的线段
+            var segment = SearchArray.lowerBound(segmentKeys, 0, segments, key);
+            if (segment < segments && segmentKeys[segment] == key)
+                return segmentStarts[segment];
+            if (--segment < 0)
+                return 0;
+            var predicted = segmentStarts[segment] + slopes[segment] * ((long) key - segmentKeys[segment]);
+            var pos = (int) Math.min(n, predicted);
+            var low = Math.max(0, pos - epsilon);
+            var high = (int) Math.min(n, (long) pos + epsilon + 1);
+            // 窗口外侧的元素确认结果在 [low, high] 中，否则向外倍增扩大窗口
+            for (int step = epsilon + 1; low > 0 && nums[low - 1] >= key; step <<= 1) {
+                high = low - 1;
+                low = Math.max(0, low - step);
+            }
+            for (int step = epsilon + 1; high < n && nums[high] < key; step <<= 1) {
+                low = high + 1;
+                high = (int) Math.min(n, (long) high + step);
+            }
+            return SearchArray.lowerBound(nums, low, high, key);
+        }
+
+        // 返回值的形式与 Arrays.binarySearch 相同，找到时为首个等于key的下标
+        public int search(int key) {
+            var index = lowerBound(key);
+            return index < nums.length && nums[index] == key ? index : -(index + 1);
+        }
+    }
 }
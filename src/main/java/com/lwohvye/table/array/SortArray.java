@@ -1,7 +1,25 @@
 package com.lwohvye.table.array;
 
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 // 排序
 public class SortArray {
+    private static final int INSERTION_SORT_THRESHOLD = 16; // 不超过该长度的区间改用插入排序
+    private static final int NINTHER_THRESHOLD = 128;       // 超过该长度的区间用九数取中选基准
+    private static final int PARALLEL_THRESHOLD = 1 << 13;  // 并行排序中不再拆分的区间长度，与 Arrays.parallelSort 相同
+    private static final int SELECT_CHECK_ROUNDS = 2;       // 快速选择中每隔几次分区检查区间是否缩小到一半
+    private static final int RADIX_BITS = 8;                // 基数排序每趟处理的位数
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX - 1;
+
+    // 基数排序复用的缓冲区，按需扩容，重复调用时不再分配。因此 radixSort 不能被多个线程在同一个实例上同时调用
+    private int[] intBuffer = new int[0];
+    private long[] longBuffer = new long[0];
+    private final int[] intCounts = new int[Integer.BYTES * RADIX];
+    private final int[] longCounts = new int[Long.BYTES * RADIX];
 
     public int[] quickSort(int[] nums, int start, int end) {
         if (start < 0 || end >= nums.length || start > end)
@@ -21,7 +39,7 @@ public class SortArray {
      * @return int
      * @date 2022/2/26 6:18 PM
      */
-    private int partition(int[] nums, int start, int end) {
+    int partition(int[] nums, int start, int end) {
         int pivot = (int) (Math.random() * (end - start + 1)) + start; // 随机取一个标识，打乱一下，避免极端情况下（倒序）n^2的问题
         swap(nums, start, pivot);
         var index = start;
@@ -42,7 +60,7 @@ public class SortArray {
      * @return int
      * @date 2022/2/26 6:18 PM
      */
-    private int partition1(int[] nums, int start, int end) {
+    int partition1(int[] nums, int start, int end) {
         //基准在范围内随机选择
         int pivot = (int) (Math.random() * (end - start + 1)) + start; // 随机取一个标识，打乱一下，避免极端情况下（倒序）n^2的问题
         //因为下面比较前先进行了自增，所以这里先减一
@@ -69,7 +87,7 @@ public class SortArray {
      * @return int
      * @date 2022/2/26 6:22 PM
      */
-    private int partition2(int[] nums, int start, int end) {
+    int partition2(int[] nums, int start, int end) {
         int i = start; // 因为从start右侧开始找，不包括start
         int j = end + 1; // 因为先--，所以这里先加了1
         while (true) {
@@ -82,6 +100,489 @@ public class SortArray {
         return j; // 此时，j的位置即为第j个元素
     }
 
+    // 内省排序（Introsort），用于生产环境，升序排列 [start, end]
+    // quickSort 的问题：递归到单个元素、每次调用 Math.random()、Lomuto 分区在大量重复元素时退化为 n^2、递归深度无上界。这里：
+    //  1、三路分区（荷兰国旗）：分为 < pivot、== pivot、> pivot 三段，等于基准的元素不再参与后续排序，重复元素多时反而更快。
+    //  2、基准取首、中、尾三数的中位数，区间较大时取九数中位数（Tukey's ninther），不需要随机数，对有序、逆序输入也表现良好。
+    //  3、区间长度不超过 INSERTION_SORT_THRESHOLD 时改用插入排序，小区间上常数更小。
+    //  4、深度超过 2·log n 时改用堆排序，保证最坏 O(n log n)。只递归较短的一侧，较长的一侧循环处理，栈深度不超过 log n。
+    public int[] introSort(int[] nums, int start, int end) {
+        Objects.checkFromToIndex(start, end + 1, nums.length);
+        if (start < end)
+            introSort(nums, start, end, 2 * (31 - Integer.numberOfLeadingZeros(end - start + 1)));
+        return nums;
+    }
+
+    private void introSort(int[] nums, int lo, int hi, int depthLimit) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(nums, lo, hi);
+                return;
+            }
+            var pivot = nums[choosePivot(nums, lo, hi)];
+            // 三路分区：[lo, lt) < pivot，[lt, i) == pivot，(gt, hi] > pivot，[i, gt] 未处理
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                var num = nums[i];
+                if (num < pivot)
+                    exchange(nums, lt++, i++);
+                else if (num > pivot)
+                    exchange(nums, i, gt--);
+                else
+                    i++;
+            }
+            if (lt - lo < hi - gt) {
+                introSort(nums, lo, lt - 1, depthLimit);
+                lo = gt + 1;
+            } else {
+                introSort(nums, gt + 1, hi, depthLimit);
+                hi = lt - 1;
+            }
+        }
+        insertionSort(nums, lo, hi);
+    }
+
+    // long[] 的内省排序，与上面的 int[] 版本相同，原地排序，不分配额外的数组
+    public long[] introSort(long[] nums, int start, int end) {
+        Objects.checkFromToIndex(start, end + 1, nums.length);
+        if (start < end)
+            introSort(nums, start, end, 2 * (31 - Integer.numberOfLeadingZeros(end - start + 1)));
+        return nums;
+    }
+
+    private void introSort(long[] nums, int lo, int hi, int depthLimit) {
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(nums, lo, hi);
+                return;
+            }
+            var pivot = nums[choosePivot(nums, lo, hi)];
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                var num = nums[i];
+                if (num < pivot)
+                    exchange(nums, lt++, i++);
+                else if (num > pivot)
+                    exchange(nums, i, gt--);
+                else
+                    i++;
+            }
+            if (lt - lo < hi - gt) {
+                introSort(nums, lo, lt - 1, depthLimit);
+                lo = gt + 1;
+            } else {
+                introSort(nums, gt + 1, hi, depthLimit);
+                hi = lt - 1;
+            }
+        }
+        insertionSort(nums, lo, hi);
+    }
+
+    // 快速选择（Introselect）：重排nums，使nums[k]为第k小（从0开始）的元素，其左侧都不比它大，右侧都不比它小，返回该元素。期望 O(n)
+    //  1、分区用 partition2：两侧遇到与基准相等的元素都会停下交换，重复元素多时仍能对半分。
+    //     partition 是 Lomuto 分区，相等的元素都分到一侧，元素全相同时退化为 n^2，所以不用。
+    //     partition2 以 nums[start] 为基准，分区前先把三数（九数）取中选出的基准换到start处。
+    //  2、只在包含k的一侧继续，区间长度不超过 INSERTION_SORT_THRESHOLD 时直接插入排序。
+    //  3、每 SELECT_CHECK_ROUNDS 次分区检查一次区间长度（Musser 的做法），没有缩小到一半以下说明基准持续选得很差，
+    //     此后改用中位数的中位数（BFPRT）选基准，每次至少去掉约 3/10 的元素。
+    //     切换前区间长度按几何级数下降，切换后每轮也是线性的，所以最坏 O(n)。
+    // 求百分位数时，select(nums, (int) (p * (n - 1))) 即可，不必整体排序
+    public int select(int[] nums, int k) {
+        Objects.checkIndex(k, nums.length);
+        select(nums, 0, nums.length - 1, k);
+        return nums[k];
+    }
+
+    private void select(int[] nums, int lo, int hi, int k) {
+        var medianOfMedians = false;
+        var rounds = 0;
+        var lastSize = hi - lo + 1; // 上次检查时的区间长度
+        while (hi - lo + 1 > INSERTION_SORT_THRESHOLD) {
+            var pivot = medianOfMedians ? medianOfMedians(nums, lo, hi) : choosePivot(nums, lo, hi);
+            exchange(nums, lo, pivot);
+            var index = partition2(nums, lo, hi);
+            if (index == k)
+                return;
+            if (k < index)
+                hi = index - 1;
+            else
+                lo = index + 1;
+            if (!medianOfMedians && ++rounds == SELECT_CHECK_ROUNDS) {
+                var size = hi - lo + 1;
+                medianOfMedians = size > lastSize >>> 1;
+                lastSize = size;
+                rounds = 0;
+            }
+        }
+        insertionSort(nums, lo, hi);
+    }
+
+    // 部分排序：重排nums，使前k个元素为最小的k个且升序排列，其余元素顺序不定。O(n + k log k)
+    public int[] partialSort(int[] nums, int k) {
+        Objects.checkFromToIndex(0, k, nums.length);
+        if (k > 0) {
+            select(nums, k - 1);
+            introSort(nums, 0, k - 2);
+        }
+        return nums;
+    }
+
+    // 最大的k个元素，降序排列，返回新数组。nums会被重排（同 select）
+    public int[] topK(int[] nums, int k) {
+        Objects.checkFromToIndex(0, k, nums.length);
+        if (k == 0)
+            return new int[0];
+        var n = nums.length;
+        select(nums, n - k);
+        var top = Arrays.copyOfRange(nums, n - k, n);
+        introSort(top, 0, k - 1);
+        for (int i = 0, j = k - 1; i < j; i++, j--)
+            exchange(top, i, j);
+        return top;
+    }
+
+    // 并行排序，使用公共的 ForkJoinPool
+    public int[] parallelSort(int[] nums) {
+        return parallelSort(nums, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    // 并行归并排序（与 Arrays.parallelSort 的思路相同）
+    // 按分区结果拆分的并行快排，顶层的分区是串行的 O(n)，限制了加速比，所以这里用归并：
+    //  1、区间对半拆分为两个子任务并行排序，长度不超过 threshold 时直接用 introSort。
+    //  2、两段有序区间的归并也并行：取较长一段的中点，在另一段中二分找到其位置，中点的最终位置随之确定，左右两部分再各自归并。
+    //  3、借助一个与原数组等长的缓冲区，每一层在原数组与缓冲区之间交替存放结果，不需要额外的复制。
+    public int[] parallelSort(int[] nums, ForkJoinPool pool, int threshold) {
+        if (threshold <= 0)
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        if (nums.length <= threshold) {
+            if (nums.length > 1)
+                introSort(nums, 0, nums.length - 1);
+            return nums;
+        }
+        var buffer = new int[nums.length];
+        pool.invoke(new SortTask(nums, buffer, 0, nums.length, false, threshold));
+        return nums;
+    }
+
+    // 排序 nums[lo, hi)，toBuffer为true时结果放在buffer的相同位置，否则放在nums中
+    private class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nums, buffer;
+        private final int lo, hi, threshold;
+        private final boolean toBuffer;
+
+        SortTask(int[] nums, int[] buffer, int lo, int hi, boolean toBuffer, int threshold) {
+            this.nums = nums;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.toBuffer = toBuffer;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                introSort(nums, lo, hi - 1);
+                if (toBuffer)
+                    System.arraycopy(nums, lo, buffer, lo, hi - lo);
+                return;
+            }
+            var mid = (lo + hi) >>> 1;
+            // 两半的结果放在另一个数组中，再归并回目标数组
+            invokeAll(new SortTask(nums, buffer, lo, mid, !toBuffer, threshold),
+                    new SortTask(nums, buffer, mid, hi, !toBuffer, threshold));
+            var src = toBuffer ? nums : buffer;
+            var dst = toBuffer ? buffer : nums;
+            new MergeTask(src, lo, mid, mid, hi, dst, lo, threshold).compute();
+        }
+    }
+
+    // 把有序的 src[aLo, aHi) 与 src[bLo, bHi) 归并到 dst[dLo, ...)
+    private static class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dst;
+        private final int aLo, aHi, bLo, bHi, dLo, threshold;
+
+        MergeTask(int[] src, int aLo, int aHi, int bLo, int bHi, int[] dst, int dLo, int threshold) {
+            this.src = src;
+            this.aLo = aLo;
+            this.aHi = aHi;
+            this.bLo = bLo;
+            this.bHi = bHi;
+            this.dst = dst;
+            this.dLo = dLo;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (aHi - aLo + bHi - bLo <= threshold) {
+                merge(src, aLo, aHi, bLo, bHi, dst, dLo);
+                return;
+            }
+            // 以较长的一段的中点拆分
+            if (aHi - aLo < bHi - bLo) {
+                new MergeTask(src, bLo, bHi, aLo, aHi, dst, dLo, threshold).compute();
+                return;
+            }
+            var aMid = (aLo + aHi) >>> 1;
+            var pivot = src[aMid];
+            // 另一段中首个不小于pivot的位置
+            int low = bLo, high = bHi;
+            while (low < high) {
+                var mid = (low + high) >>> 1;
+                if (src[mid] < pivot)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            var dMid = dLo + (aMid - aLo) + (low - bLo);
+            dst[dMid] = pivot;
+            invokeAll(new MergeTask(src, aLo, aMid, bLo, low, dst, dLo, threshold),
+                    new MergeTask(src, aMid + 1, aHi, low, bHi, dst, dMid + 1, threshold));
+        }
+
+        private static void merge(int[] src, int aLo, int aHi, int bLo, int bHi, int[] dst, int d) {
+            while (aLo < aHi && bLo < bHi)
+                dst[d++] = src[aLo] <= src[bLo] ? src[aLo++] : src[bLo++];
+            System.arraycopy(src, aLo, dst, d, aHi - aLo);
+            d += aHi - aLo;
+            System.arraycopy(src, bLo, dst, d, bHi - bLo);
+        }
+    }
+
+    // LSD 基数排序（低位优先），O(n)，适合反复对大量整数排序
+    //  1、每趟按8位（一个字节）分配，int 共4趟，long 共8趟。每趟是稳定的计数排序，低位的顺序在处理高位时得以保留。
+    //  2、一次遍历同时统计所有趟的计数。若某一趟所有元素的该字节都相同（计数等于n），这一趟不改变顺序，直接跳过。
+    //  3、负数：补码下负数的最高位为1，最高字节按无符号比较会排在正数之后，所以最高字节与 0x80 异或后再分配，即翻转符号位。
+    //  4、在原数组与缓冲区之间交替分配，最终结果若在缓冲区中，再复制回原数组。
+    public int[] radixSort(int[] nums) {
+        var n = nums.length;
+        if (n < 2)
+            return nums;
+        if (intBuffer.length < n)
+            intBuffer = new int[n];
+        var counts = intCounts;
+        Arrays.fill(counts, 0);
+        for (var num : nums) {
+            for (int pass = 0; pass < Integer.BYTES; pass++)
+                counts[pass * RADIX + intDigit(num, pass)]++;
+        }
+
+        int[] src = nums, dst = intBuffer;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            var offset = pass * RADIX;
+            if (counts[offset + intDigit(nums[0], pass)] == n)
+                continue;
+            // 计数转为各桶的起始位置
+            for (int i = 0, sum = 0; i < RADIX; i++) {
+                var count = counts[offset + i];
+                counts[offset + i] = sum;
+                sum += count;
+            }
+            for (int i = 0; i < n; i++) {
+                var num = src[i];
+                dst[counts[offset + intDigit(num, pass)]++] = num;
+            }
+            var t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != nums)
+            System.arraycopy(src, 0, nums, 0, n);
+        return nums;
+    }
+
+    public long[] radixSort(long[] nums) {
+        var n = nums.length;
+        if (n < 2)
+            return nums;
+        if (longBuffer.length < n)
+            longBuffer = new long[n];
+        var counts = longCounts;
+        Arrays.fill(counts, 0);
+        for (var num : nums) {
+            for (int pass = 0; pass < Long.BYTES; pass++)
+                counts[pass * RADIX + longDigit(num, pass)]++;
+        }
+
+        long[] src = nums, dst = longBuffer;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            var offset = pass * RADIX;
+            if (counts[offset + longDigit(nums[0], pass)] == n)
+                continue;
+            for (int i = 0, sum = 0; i < RADIX; i++) {
+                var count = counts[offset + i];
+                counts[offset + i] = sum;
+                sum += count;
+            }
+            for (int i = 0; i < n; i++) {
+                var num = src[i];
+                dst[counts[offset + longDigit(num, pass)]++] = num;
+            }
+            var t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != nums)
+            System.arraycopy(src, 0, nums, 0, n);
+        return nums;
+    }
+
+    // 第pass个字节（从低位开始），最高字节翻转符号位
+    private static int intDigit(int num, int pass) {
+        var digit = (num >>> (pass * RADIX_BITS)) & RADIX_MASK;
+        return pass == Integer.BYTES - 1 ? digit ^ (RADIX >>> 1) : digit;
+    }
+
+    private static int longDigit(long num, int pass) {
+        var digit = (int) (num >>> (pass * RADIX_BITS)) & RADIX_MASK;
+        return pass == Long.BYTES - 1 ? digit ^ (RADIX >>> 1) : digit;
+    }
+
+    // 三数取中，区间较大时九数取中，返回基准的下标
+    private int choosePivot(int[] nums, int lo, int hi) {
+        var mid = (lo + hi) >>> 1;
+        if (hi - lo + 1 > NINTHER_THRESHOLD) {
+            var step = (hi - lo + 1) >>> 3;
+            return medianOfThree(nums,
+                    medianOfThree(nums, lo, lo + step, lo + 2 * step),
+                    medianOfThree(nums, mid - step, mid, mid + step),
+                    medianOfThree(nums, hi - 2 * step, hi - step, hi));
+        }
+        return medianOfThree(nums, lo, mid, hi);
+    }
+
+    private int medianOfThree(int[] nums, int a, int b, int c) {
+        if (nums[a] < nums[b])
+            return nums[b] < nums[c] ? b : nums[a] < nums[c] ? c : a;
+        return nums[a] < nums[c] ? a : nums[b] < nums[c] ? c : b;
+    }
+
+    // 中位数的中位数：每5个一组取中位数，依次换到区间开头，再递归地选出这些中位数的中位数，返回其下标
+    // 该基准保证两侧各至少有约 3/10 的元素
+    private int medianOfMedians(int[] nums, int lo, int hi) {
+        var medians = lo;
+        for (int i = lo; i <= hi; i += 5) {
+            var end = Math.min(i + 4, hi);
+            insertionSort(nums, i, end);
+            exchange(nums, medians++, (i + end) >>> 1);
+        }
+        var mid = (lo + medians - 1) >>> 1;
+        select(nums, lo, medians - 1, mid);
+        return mid;
+    }
+
+    // 插入排序 [lo, hi]
+    private void insertionSort(int[] nums, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            var num = nums[i];
+            var j = i - 1;
+            while (j >= lo && nums[j] > num) {
+                nums[j + 1] = nums[j];
+                j--;
+            }
+            nums[j + 1] = num;
+        }
+    }
+
+    // 堆排序 [lo, hi]：先建大顶堆，再依次把堆顶换到末尾
+    private void heapSort(int[] nums, int lo, int hi) {
+        var n = hi - lo + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--)
+            siftDown(nums, lo, i, n);
+        for (int size = n - 1; size > 0; size--) {
+            exchange(nums, lo, lo + size);
+            siftDown(nums, lo, 0, size);
+        }
+    }
+
+    // 下沉。堆中第i个元素位于 nums[lo + i]
+    private void siftDown(int[] nums, int lo, int i, int size) {
+        var num = nums[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && nums[lo + child + 1] > nums[lo + child])
+                child++;
+            if (nums[lo + child] <= num)
+                break;
+            nums[lo + i] = nums[lo + child];
+            i = child;
+        }
+        nums[lo + i] = num;
+    }
+
+    // 借助临时变量交换。热路径上比下面的异或交换少一次比较，且下标相同时也正确
+    private static void exchange(int[] nums, int i, int j) {
+        var t = nums[i];
+        nums[i] = nums[j];
+        nums[j] = t;
+    }
+
+    // 以下为 long[] 版本的辅助方法，与对应的 int[] 版本相同
+    private int choosePivot(long[] nums, int lo, int hi) {
+        var mid = (lo + hi) >>> 1;
+        if (hi - lo + 1 > NINTHER_THRESHOLD) {
+            var step = (hi - lo + 1) >>> 3;
+            return medianOfThree(nums,
+                    medianOfThree(nums, lo, lo + step, lo + 2 * step),
+                    medianOfThree(nums, mid - step, mid, mid + step),
+                    medianOfThree(nums, hi - 2 * step, hi - step, hi));
+        }
+        return medianOfThree(nums, lo, mid, hi);
+    }
+
+    private int medianOfThree(long[] nums, int a, int b, int c) {
+        if (nums[a] < nums[b])
+            return nums[b] < nums[c] ? b : nums[a] < nums[c] ? c : a;
+        return nums[a] < nums[c] ? a : nums[b] < nums[c] ? c : b;
+    }
+
+    private void insertionSort(long[] nums, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            var num = nums[i];
+            var j = i - 1;
+            while (j >= lo && nums[j] > num) {
+                nums[j + 1] = nums[j];
+                j--;
+            }
+            nums[j + 1] = num;
+        }
+    }
+
+    private void heapSort(long[] nums, int lo, int hi) {
+        var n = hi - lo + 1;
+        for (int i = (n >>> 1) - 1; i >= 0; i--)
+            siftDown(nums, lo, i, n);
+        for (int size = n - 1; size > 0; size--) {
+            exchange(nums, lo, lo + size);
+            siftDown(nums, lo, 0, size);
+        }
+    }
+
+    private void siftDown(long[] nums, int lo, int i, int size) {
+        var num = nums[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && nums[lo + child + 1] > nums[lo + child])
+                child++;
+            if (nums[lo + child] <= num)
+                break;
+            nums[lo + i] = nums[lo + child];
+            i = child;
+        }
+        nums[lo + i] = num;
+    }
+
+    private static void exchange(long[] nums, int i, int j) {
+        var t = nums[i];
+        nums[i] = nums[j];
+        nums[j] = t;
+    }
+
     private void swap(int[] nums, int start, int pivot) {
         // 当用下面这种交换形式时，需注意前校验两者的值不相等
         if (nums[start] == nums[pivot]) return;
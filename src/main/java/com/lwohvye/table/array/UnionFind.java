@@ -1,5 +1,7 @@
 package com.lwohvye.table.array;
 
+import java.util.Arrays;
+
 // 并查集
 // 并查集是一种树型的数据结构，用于处理一些不相交集合的合并及查询问题。
 // 并查集的思想是用一个数组表示了整片森林（parent），树的根节点唯一标识了一个集合，我们只要找到了某个元素的的树根，就能确定它在哪个集合里
@@ -7,8 +9,9 @@ package com.lwohvye.table.array;
 //      合并（Union）：把两个不相交的集合合并为一个集合。
 //      查询（Find）：查询两个元素是否在同一个集合中
 public class UnionFind {
-    private int[] rank;   // rank[i]表示以i为根的集合所表示的树的层数。称为 秩。当按秩优化与路径压缩同时使用时，秩的值可能不是实际值。
-    //秩不是准确的子树高，而是子树高的上界，因为路径压缩可能改变子树高。还可以将秩定义成子树节点数，因为节点多的树倾向更高。无论将秩定义成子树高上界，还是子树节点数，按秩合并都是尝试合出最矮的树，并不保证一定最矮。
+    private int[] size;   // size[i]表示以i为根的集合中的元素个数，只对根节点有意义。按此合并，即把秩定义为子树节点数
+    //秩可以定义为子树高的上界（当按秩优化与路径压缩同时使用时，秩不是准确的子树高），也可以定义成子树节点数，因为节点多的树倾向更高。无论将秩定义成子树高上界，还是子树节点数，按秩合并都是尝试合出最矮的树，并不保证一定最矮。
+    //这里用子树节点数，这样还能直接得到各集合的大小
 
     private int[] parent; // parent[i]表示第i个元素所指向的父节点
     private int count;    // 数据个数
@@ -16,38 +19,31 @@ public class UnionFind {
 
     // 构造函数
     public UnionFind(int count) {
-        rank = new int[count];
+        size = new int[count];
         parent = new int[count];
         this.count = count;
         this.part = count;
         // 初始化, 每一个parent[i]指向自己, 表示每一个元素自己自成一个集合
         for (int i = 0; i < count; ++i) {
             parent[i] = i;
-            rank[i] = 1;
+            size[i] = 1;
         }
     }
 
-    // 查找过程, 查找元素p所对应的集合编号
-    // O(h)复杂度, h为树的高度
+    // 查找过程, 查找元素p所对应的集合编号，同时压缩路径
+    // 压缩路径后，已不必担心树高问题，时间复杂度O(å(n)) <= O(4)
+    // 递归写法 if (p != parent[p]) return parent[p] = find(parent[p]); 在压缩之前可能形成很长的链，递归过深会栈溢出，所以用两趟迭代：
+    //  第一趟不断去查询自己的父亲节点, 直到到达根节点。根节点的特点: parent[p] == p
+    //  第二趟把路径上的每个节点直接指向根节点
     private int find(int p) {
         // 根据业务，可以移除
         assert (p >= 0 && p < count);
-        // 不断去查询自己的父亲节点, 直到到达根节点
-        // 根节点的特点: parent[p] == p
-//        while (p != parent[p])
-//            p = parent[p];
-//        return p;
-
-        if (p != parent[p]) return parent[p] = find(parent[p]);
-        return parent[p];
-    }
-
-    // 压缩路径，但这个与秩冲突了。基于该方式，已不必担心树高问题，时间复杂度O(å(n)) <= O(4)
-    private int findZipPath(int p) {
-        int root = find(p);
+        int root = p;
+        while (root != parent[root])
+            root = parent[root];
         while (p != root) {
             int t = parent[p];
-            parent[t] = root; // 路径压缩
+            parent[p] = root; // 路径压缩
             p = t;
         }
         return root;
@@ -61,25 +57,63 @@ public class UnionFind {
 
     // 合并元素p和元素q所属的集合
     // O(h)复杂度, h为树的高度
-    // 按秩优化：合并时，基于rank进行优化，将层高低的合并到层高高的
+    // 按秩优化：合并时，基于size进行优化，将节点少的合并到节点多的
     public void union(int p, int q) {
-        // 获取各自根节点
-        int pRoot = find(p);
-        int qRoot = find(q);
+        unionRoots(find(p), find(q));
+    }
+
+    // 批量合并 (ps[i], qs[i])，返回实际发生合并的次数
+    // 一次调用处理大量的边，省去逐条调用的开销
+    public int unionAll(int[] ps, int[] qs) {
+        if (ps.length != qs.length)
+            throw new IllegalArgumentException("ps and qs differ in length: " + ps.length + " != " + qs.length);
+        int merged = 0;
+        for (int i = 0; i < ps.length; i++) {
+            if (unionRoots(find(ps[i]), find(qs[i])))
+                merged++;
+        }
+        return merged;
+    }
+
+    // 独立集合的个数
+    public int componentCount() {
+        return part;
+    }
+
+    // 元素p所在集合的元素个数
+    public int componentSize(int p) {
+        return size[find(p)];
+    }
+
+    // 每个元素所在集合的编号，编号连续，从0到componentCount() - 1，按集合中最小元素的顺序分配
+    public int[] componentLabels() {
+        var labels = new int[count];
+        Arrays.fill(labels, -1);
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            int root = find(i);
+            if (labels[root] == -1)
+                labels[root] = next++;
+            labels[i] = labels[root];
+        }
+        return labels;
+    }
+
+    // 合并两个根节点，返回是否发生了合并
+    private boolean unionRoots(int pRoot, int qRoot) {
         // 根节点同
         if (pRoot == qRoot)
-            return;
+            return false;
         // 根节点不同，合并后，分区减一
         part--;
-        // 父节点不同时，比较秩
-        if (rank[pRoot] < rank[qRoot])
+        // 父节点不同时，比较大小
+        if (size[pRoot] < size[qRoot]) {
             parent[pRoot] = qRoot;
-        else if (rank[qRoot] < rank[pRoot])
+            size[qRoot] += size[pRoot];   // 维护size的值
+        } else {
             parent[qRoot] = pRoot;
-        else { // rank[pRoot] == rank[qRoot]
-            // 层高相等。其中一个合并到另一个后，新的父点层高+1
-            parent[pRoot] = qRoot;
-            rank[qRoot] += 1;   // 维护rank的值
+            size[pRoot] += size[qRoot];
         }
+        return true;
     }
 }
@@ -0,0 +1,297 @@
+package com.lwohvye.tree;
+
+// 平衡二叉搜索树（AVL树）
+// AVL树是最早被发明的自平衡二叉搜索树。在AVL树中，任一节点对应的两棵子树的最大高度差为1，因此它也被称为高度平衡树。
+//  平衡因子：节点左子树的高度减去右子树的高度。平衡因子为 -1、0、1 的节点被认为是平衡的。
+//  插入、删除后，自底向上检查沿途节点的平衡因子，通过旋转恢复平衡，树高始终不超过 1.44 log n。
+// 失衡的四种情况及处理：
+//  LL：在左子树的左侧插入导致失衡，对当前节点右旋。
+//  RR：在右子树的右侧插入导致失衡，对当前节点左旋。
+//  LR：在左子树的右侧插入导致失衡，先对左子节点左旋，再对当前节点右旋。
+//  RL：在右子树的左侧插入导致失衡，先对右子节点右旋，再对当前节点左旋。
+//
+// 与 BinarySearchTree 对外接口相同，但各操作均为迭代实现，用栈记录查找路径，回溯时维护高度并旋转。
+// 即便 key 单调递增（例如时间戳），也不会退化为链表，所有操作均为 O(log n)，且不会因递归过深而栈溢出。
+
+import java.util.ArrayDeque;
+
+public class AVLTree<K extends Comparable, V> {
+    private class TreeNode {
+        private K key;
+        private V value;
+        private TreeNode left, right;
+        private int height; // 以该节点为根的子树的高度，叶子节点为1
+
+        public TreeNode(K key, V value) {
+            this.key = key;
+            this.value = value;
+            left = right = null;
+            height = 1;
+        }
+    }
+
+    private TreeNode root;  // 根节点
+    private int count;  // 树中的节点个数
+
+    public AVLTree() {
+        root = null;
+        count = 0;
+    }
+
+    // 返回节点个数
+    public int size() {
+        return count;
+    }
+
+    // 返回是否为空
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // 返回树的高度，空树为0
+    public int height() {
+        return height(root);
+    }
+
+    // 插入一个新的(key, value)数据对。key已存在时更新value
+    public void insert(K key, V value) {
+        if (root == null) {
+            root = new TreeNode(key, value);
+            count++;
+            return;
+        }
+
+        // 记录从根到插入位置的路径，用于回溯
+        var path = new ArrayDeque<TreeNode>();
+        var node = root;
+        while (true) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                // 只更新value，树的结构不变，无需回溯
+                node.value = value;
+                return;
+            }
+            path.push(node);
+            var next = cmp < 0 ? node.left : node.right;
+            if (next == null) {
+                if (cmp < 0)
+                    node.left = new TreeNode(key, value);
+                else
+                    node.right = new TreeNode(key, value);
+                count++;
+                break;
+            }
+            node = next;
+        }
+        rebalancePath(path);
+    }
+
+    // 查看是否存在键key
+    public boolean contain(K key) {
+        return getNode(key) != null;
+    }
+
+    // 搜索键key所对应的值。如果这个值不存在, 则返回null
+    public V search(K key) {
+        var node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    // 寻找最小的键值
+    public K minimum() {
+        assert count != 0;
+        return minimum(root).key;
+    }
+
+    // 寻找最大的键值
+    public K maximum() {
+        assert count != 0;
+        return maximum(root).key;
+    }
+
+    // 删除最小值所在节点
+    public void removeMin() {
+        if (root != null)
+            remove(minimum(root).key);
+    }
+
+    // 删除最大值所在节点
+    public void removeMax() {
+        if (root != null)
+            remove(maximum(root).key);
+    }
+
+    // 删除键值为key的节点
+    public void remove(K key) {
+        var path = new ArrayDeque<TreeNode>();
+        var node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0)
+                break;
+            path.push(node);
+            node = cmp < 0 ? node.left : node.right;
+        }
+        // 不存在
+        if (node == null)
+            return;
+
+        // 待删除节点左右子树均不为空的情况
+        // 找到比待删除节点大的最小节点（后继），用后继的键值顶替待删除节点，转为删除后继。后继没有左子节点
+        if (node.left != null && node.right != null) {
+            path.push(node);
+            var successor = node.right;
+            while (successor.left != null) {
+                path.push(successor);
+                successor = successor.left;
+            }
+            node.key = successor.key;
+            node.value = successor.value;
+            node = successor;
+        }
+
+        // 此时node至多有一个子节点，用该子节点顶替node的位置
+        var child = node.left != null ? node.left : node.right;
+        var parent = path.peek();
+        if (parent == null)
+            root = child;
+        else if (parent.left == node)
+            parent.left = child;
+        else
+            parent.right = child;
+        node.left = node.right = null;
+        count--;
+
+        rebalancePath(path);
+    }
+
+    //********************
+    //* 辅助函数
+    //********************
+
+    // 校验是否为合法的AVL树：满足二分搜索树的性质，且每个节点的平衡因子与高度正确
+    public boolean isBalanced() {
+        var stack = new ArrayDeque<TreeNode>();
+        var node = root;
+        K prev = null;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            if (prev != null && node.key.compareTo(prev) <= 0)
+                return false;
+            if (Math.abs(balanceFactor(node)) > 1)
+                return false;
+            if (node.height != Math.max(height(node.left), height(node.right)) + 1)
+                return false;
+            prev = node.key;
+            node = node.right;
+        }
+        return true;
+    }
+
+    private TreeNode getNode(K key) {
+        var node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0)
+                return node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private TreeNode minimum(TreeNode node) {
+        while (node.left != null)
+            node = node.left;
+        return node;
+    }
+
+    private TreeNode maximum(TreeNode node) {
+        while (node.right != null)
+            node = node.right;
+        return node;
+    }
+
+    // 沿路径自底向上维护高度、恢复平衡，并把旋转后的子树根挂回父节点
+    private void rebalancePath(ArrayDeque<TreeNode> path) {
+        while (!path.isEmpty()) {
+            var node = path.pop();
+            var balanced = rebalance(node);
+            if (balanced == node)
+                continue;
+            var parent = path.peek();
+            if (parent == null)
+                root = balanced;
+            else if (parent.left == node)
+                parent.left = balanced;
+            else
+                parent.right = balanced;
+        }
+    }
+
+    // 更新node的高度，若失衡则旋转，返回调整后子树的根
+    private TreeNode rebalance(TreeNode node) {
+        updateHeight(node);
+        int balanceFactor = balanceFactor(node);
+        if (balanceFactor > 1) {
+            // LR：先对左子节点左旋，转为LL
+            if (balanceFactor(node.left) < 0)
+                node.left = rotateLeft(node.left);
+            // LL
+            return rotateRight(node);
+        }
+        if (balanceFactor < -1) {
+            // RL：先对右子节点右旋，转为RR
+            if (balanceFactor(node.right) > 0)
+                node.right = rotateRight(node.right);
+            // RR
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    // 右旋
+    //        y                x
+    //       / \              / \
+    //      x   T4           z   y
+    //     / \       ->         / \
+    //    z   T3               T3  T4
+    private TreeNode rotateRight(TreeNode y) {
+        var x = y.left;
+        y.left = x.right;
+        x.right = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    // 左旋
+    //      y                  x
+    //     / \                / \
+    //    T1  x              y   z
+    //       / \     ->     / \
+    //      T2  z          T1  T2
+    private TreeNode rotateLeft(TreeNode y) {
+        var x = y.right;
+        y.right = x.left;
+        x.left = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    private int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private int balanceFactor(TreeNode node) {
+        return height(node.left) - height(node.right);
+    }
+
+    private void updateHeight(TreeNode node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+}
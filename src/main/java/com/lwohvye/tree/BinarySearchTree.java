@@ -19,23 +19,28 @@ package com.lwohvye.tree;
 //  通过引入一个队列来支撑层序遍历（广度优先）
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // 二分搜索树的特性
 //  顺序性：二分搜索树可以当做查找表的一种实现。
 //    我们使用二分搜索树的目的是通过查找 key 马上得到 value。minimum、maximum、successor（后继）、predecessor（前驱）、floor（地板）、ceil（天花板、rank（排名第几的元素）、select（排名第n的元素是谁）这些都是二分搜索树顺序性的表现。
 //  局限性：二分搜索树在时间性能上是具有局限性的。二叉搜索树可能退化成链表
-public class BinarySearchTree<K extends Comparable, V> {
+public class BinarySearchTree<K extends Comparable, V> implements Iterable<K> {
     // 树中的节点为私有的类, 外界不需要了解二分搜索树节点的具体实现
     private class TreeNode {
         // 这种定义方式，二分搜索树的相关性质是基于key的，K 要实现Comparable接口。部分情况下，树中可能没有value。
         private K key;
         private V value;
         private TreeNode left, right;
+        private int size; // 以该节点为根的子树的节点个数，用于排名相关的操作
 
         public TreeNode(K key, V value) {
             this.key = key;
             this.value = value;
             left = right = null;
+            size = 1;
         }
 
         public TreeNode(TreeNode treeNode) {
@@ -43,6 +48,7 @@ public class BinarySearchTree<K extends Comparable, V> {
             this.value = treeNode.value;
             this.left = treeNode.left;
             this.right = treeNode.right;
+            this.size = treeNode.size;
         }
     }
 
@@ -55,6 +61,22 @@ public class BinarySearchTree<K extends Comparable, V> {
         count = 0;
     }
 
+    // 由严格升序的键数组批量构建，O(n)。每次取中间元素为根，得到完全平衡的树，高度为 log n
+    // 逐个insert已排序的数据会退化为链表，总计 O(n^2)，且递归过深会栈溢出
+    // values 为null时，各键对应的值均为null
+    public static <K extends Comparable, V> BinarySearchTree<K, V> fromSorted(K[] keys, V[] values) {
+        if (values != null && values.length != keys.length)
+            throw new IllegalArgumentException("keys and values differ in length: " + keys.length + " != " + values.length);
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1].compareTo(keys[i]) >= 0)
+                throw new IllegalArgumentException("keys not strictly ascending at index " + i);
+        }
+        var tree = new BinarySearchTree<K, V>();
+        tree.root = tree.build(keys, values, 0, keys.length - 1);
+        tree.count = keys.length;
+        return tree;
+    }
+
     // 返回二分搜索树的节点个数
     public int size() {
         return count;
@@ -100,6 +122,51 @@ public class BinarySearchTree<K extends Comparable, V> {
         levelOrder(root);
     }
 
+    // 惰性遍历：与上面的遍历不同，不会先把结果收集到List中，每次next()只访问必要的节点，提前结束时只为访问过的节点付出代价
+    // 深度优先的迭代器用栈保存 O(h) 个节点，层序迭代器用队列保存一层的节点。
+    // Morris 遍历会临时修改树的指针，迭代器若被中途放弃，树将处于被修改的状态，因此不提供 Morris 的惰性版本。
+    // 迭代期间不可修改树。
+
+    // 中序遍历的迭代器，按key升序
+    @Override
+    public Iterator<K> iterator() {
+        return new InOrderIterator(root, null, null);
+    }
+
+    // 前序遍历的迭代器
+    public Iterator<K> preOrderIterator() {
+        return new PreOrderIterator(root);
+    }
+
+    // 中序遍历的迭代器
+    public Iterator<K> inOrderIterator() {
+        return iterator();
+    }
+
+    // 后序遍历的迭代器
+    public Iterator<K> postOrderIterator() {
+        return new PostOrderIterator(root);
+    }
+
+    // 层序遍历的迭代器
+    public Iterator<K> levelOrderIterator() {
+        return new LevelOrderIterator(root);
+    }
+
+    // 按子树拆分的 Spliterator，按key升序。parallelStream() 依赖它把树拆给多个线程
+    @Override
+    public Spliterator<K> spliterator() {
+        return new KeySpliterator(root, null, null, count);
+    }
+
+    public Stream<K> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<K> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     // 寻找二分搜索树的最小的键值
     public K minimum() {
         assert count != 0;
@@ -131,6 +198,126 @@ public class BinarySearchTree<K extends Comparable, V> {
         root = remove(root, key);
     }
 
+    // 顺序性相关的操作。每个节点维护子树大小，以下操作均为 O(h)，不再需要先中序遍历再线性查找
+
+    // 地板：小于等于key的最大键值，不存在则返回null
+    public K floor(K key) {
+        var node = root;
+        K floor = null;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0)
+                return node.key;
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                // 当前节点是候选，右子树中可能有更接近的
+                floor = node.key;
+                node = node.right;
+            }
+        }
+        return floor;
+    }
+
+    // 天花板：大于等于key的最小键值，不存在则返回null
+    public K ceiling(K key) {
+        var node = root;
+        K ceiling = null;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0)
+                return node.key;
+            if (cmp > 0) {
+                node = node.right;
+            } else {
+                ceiling = node.key;
+                node = node.left;
+            }
+        }
+        return ceiling;
+    }
+
+    // 排名：树中小于key的键值个数。key不必存在于树中
+    public int rank(K key) {
+        var node = root;
+        var rank = 0;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                // 左子树与当前节点都比key小
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                rank += size(node.left);
+                break;
+            }
+        }
+        return rank;
+    }
+
+    // 选择：排名为k的键值（从0开始），即第k+1小的键值。select(rank(key)) == key
+    public K select(int k) {
+        if (k < 0 || k >= count)
+            throw new IllegalArgumentException("k out of range: " + k);
+        var node = root;
+        while (true) {
+            var leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.key;
+            }
+        }
+    }
+
+    // [lo, hi) 范围内的键值个数
+    public int countInRange(K lo, K hi) {
+        if (lo.compareTo(hi) >= 0)
+            return 0;
+        return rank(hi) - rank(lo);
+    }
+
+    // 合并另一棵树的全部数据，key相同时取other中的value，other保持不变
+    // 两棵树各自中序遍历即为有序序列，归并后重新构建平衡的树，O(m + n)。逐个insert则为 O(m log(m + n))，且不平衡时更差
+    public void merge(BinarySearchTree<K, V> other) {
+        if (other.isEmpty())
+            return;
+        var keys = new Object[count + other.count];
+        var values = new Object[keys.length];
+        var n = 0;
+        var it1 = new InOrderIterator(root, null, null);
+        var it2 = other.new InOrderIterator(other.root, null, null);
+        var node1 = it1.hasNext() ? it1.nextNode() : null;
+        var node2 = it2.hasNext() ? it2.nextNode() : null;
+        while (node1 != null || node2 != null) {
+            int cmp = node1 == null ? 1 : node2 == null ? -1 : node1.key.compareTo(node2.key);
+            if (cmp < 0) {
+                keys[n] = node1.key;
+                values[n++] = node1.value;
+                node1 = it1.hasNext() ? it1.nextNode() : null;
+            } else {
+                keys[n] = node2.key;
+                values[n++] = node2.value;
+                // 相同的key只保留一份
+                if (cmp == 0)
+                    node1 = it1.hasNext() ? it1.nextNode() : null;
+                node2 = it2.hasNext() ? it2.nextNode() : null;
+            }
+        }
+        root = build(keys, values, 0, n - 1);
+        count = n;
+    }
+
+    // [lo, hi) 范围的视图。不复制数据，对树的修改会反映到视图上
+    public SubMap subMap(K lo, K hi) {
+        return new SubMap(lo, hi);
+    }
+
     //********************
     //* 二分搜索树的辅助函数
     //********************
@@ -178,6 +365,7 @@ public class BinarySearchTree<K extends Comparable, V> {
         else    // key > node->key
             root.right = insert(root.right, key, value);
 
+        updateSize(root);
         return root;
     }
 
@@ -497,6 +685,7 @@ public class BinarySearchTree<K extends Comparable, V> {
         }
 
         root.left = removeMin(root.left);
+        updateSize(root);
         return root;
     }
 
@@ -513,6 +702,7 @@ public class BinarySearchTree<K extends Comparable, V> {
         }
 
         root.right = removeMax(root.right);
+        updateSize(root);
         return root;
     }
 
@@ -525,9 +715,11 @@ public class BinarySearchTree<K extends Comparable, V> {
 
         if (key.compareTo(root.key) < 0) {
             root.left = remove(root.left, key);
+            updateSize(root);
             return root;
         } else if (key.compareTo(root.key) > 0) {
             root.right = remove(root.right, key);
+            updateSize(root);
             return root;
         } else {   // key == node->key
 
@@ -556,6 +748,7 @@ public class BinarySearchTree<K extends Comparable, V> {
 
             successor.right = removeMin(root.right);
             successor.left = root.left;
+            updateSize(successor);
 
             root.left = root.right = null;
             count--;
@@ -563,4 +756,308 @@ public class BinarySearchTree<K extends Comparable, V> {
             return successor;
         }
     }
+
+    private int size(TreeNode node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // 以有序数组 [lo, hi] 构建平衡的二分搜索树，递归深度为 log n
+    @SuppressWarnings("unchecked")
+    private TreeNode build(Object[] keys, Object[] values, int lo, int hi) {
+        if (lo > hi)
+            return null;
+        var mid = (lo + hi) >>> 1;
+        var node = new TreeNode((K) keys[mid], values == null ? null : (V) values[mid]);
+        node.left = build(keys, values, lo, mid - 1);
+        node.right = build(keys, values, mid + 1, hi);
+        updateSize(node);
+        return node;
+    }
+
+    private void updateSize(TreeNode node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    // [lo, hi) 范围的视图，各操作都落到树上执行
+    public class SubMap implements Iterable<K> {
+        private final K lo, hi;
+
+        private SubMap(K lo, K hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        private boolean inRange(K key) {
+            return key.compareTo(lo) >= 0 && key.compareTo(hi) < 0;
+        }
+
+        public int size() {
+            return countInRange(lo, hi);
+        }
+
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        public boolean contain(K key) {
+            return inRange(key) && BinarySearchTree.this.contain(key);
+        }
+
+        public V search(K key) {
+            return inRange(key) ? BinarySearchTree.this.search(key) : null;
+        }
+
+        // 范围内最小的键值，为空则返回null
+        public K minimum() {
+            var key = ceiling(lo);
+            return key != null && key.compareTo(hi) < 0 ? key : null;
+        }
+
+        // 范围内最大的键值，为空则返回null
+        public K maximum() {
+            var rank = rank(hi);
+            if (rank == 0)
+                return null;
+            var key = select(rank - 1);
+            return key.compareTo(lo) >= 0 ? key : null;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new InOrderIterator(root, lo, hi);
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            return new KeySpliterator(root, lo, hi, size());
+        }
+
+        public Stream<K> stream() {
+            return StreamSupport.stream(spliterator(), false);
+        }
+
+        public Stream<K> parallelStream() {
+            return StreamSupport.stream(spliterator(), true);
+        }
+    }
+
+    //********************
+    //* 迭代器
+    //********************
+
+    // 中序遍历的迭代器，只输出 [lo, hi) 范围内的key，lo、hi 为null表示不设界
+    // 向左下降时跳过小于lo的节点（直接转向其右子树），遇到不小于hi的key即结束
+    private class InOrderIterator implements Iterator<K> {
+        private final ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        private final K hi;
+
+        InOrderIterator(TreeNode root, K lo, K hi) {
+            this.hi = hi;
+            pushLeft(root, lo);
+        }
+
+        private void pushLeft(TreeNode node, K lo) {
+            while (node != null) {
+                if (lo != null && node.key.compareTo(lo) < 0) {
+                    node = node.right;
+                } else {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (hi == null || stack.peek().key.compareTo(hi) < 0);
+        }
+
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+
+        TreeNode nextNode() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            var node = stack.pop();
+            // 右子树中的key都大于当前key，也就都不小于lo
+            pushLeft(node.right, null);
+            return node;
+        }
+    }
+
+    // 前序遍历的迭代器：先当前，再左，再右。右子节点先入栈
+    private class PreOrderIterator implements Iterator<K> {
+        private final ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+
+        PreOrderIterator(TreeNode root) {
+            if (root != null)
+                stack.push(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public K next() {
+            if (stack.isEmpty())
+                throw new NoSuchElementException();
+            var node = stack.pop();
+            if (node.right != null)
+                stack.push(node.right);
+            if (node.left != null)
+                stack.push(node.left);
+            return node.key;
+        }
+    }
+
+    // 后序遍历的迭代器：栈顶始终是下一个要输出的节点
+    // 输出一个节点后，若它是父节点的左子节点，则父节点的右子树还未访问，下降到右子树中第一个后序节点（最左的叶子）
+    private class PostOrderIterator implements Iterator<K> {
+        private final ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+
+        PostOrderIterator(TreeNode root) {
+            pushFirstLeaf(root);
+        }
+
+        // 优先向左，没有左子节点时向右，直到叶子
+        private void pushFirstLeaf(TreeNode node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left != null ? node.left : node.right;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public K next() {
+            if (stack.isEmpty())
+                throw new NoSuchElementException();
+            var node = stack.pop();
+            var parent = stack.peek();
+            if (parent != null && parent.left == node)
+                pushFirstLeaf(parent.right);
+            return node.key;
+        }
+    }
+
+    // 层序遍历的迭代器
+    private class LevelOrderIterator implements Iterator<K> {
+        private final ArrayDeque<TreeNode> queue = new ArrayDeque<>();
+
+        LevelOrderIterator(TreeNode root) {
+            if (root != null)
+                queue.offer(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public K next() {
+            if (queue.isEmpty())
+                throw new NoSuchElementException();
+            var node = queue.poll();
+            if (node.left != null)
+                queue.offer(node.left);
+            if (node.right != null)
+                queue.offer(node.right);
+            return node.key;
+        }
+    }
+
+    // 覆盖 [lo, hi) 范围的 Spliterator，top 为包含该范围内全部key的子树的根
+    // 拆分：从top向下找第一个严格落在 (lo, hi) 内的节点s，前一半为 [lo, s)，当前保留 [s, hi)。
+    //  查找路径上的其他节点都在范围外，所以 [s, hi) 内的key都在s的子树中，当前的top改为s；前一半仍以原top为根。
+    // 开始遍历后不再拆分。大小按每次拆分减半估算，与 TreeMap 的做法一致
+    private class KeySpliterator implements Spliterator<K> {
+        private TreeNode top;
+        private K lo;
+        private final K hi;
+        private long est;
+        private boolean sized;
+        private InOrderIterator cursor;
+
+        KeySpliterator(TreeNode top, K lo, K hi, long est) {
+            this.top = top;
+            this.lo = lo;
+            this.hi = hi;
+            this.est = est;
+            this.sized = lo == null && hi == null;
+        }
+
+        @Override
+        public Spliterator<K> trySplit() {
+            if (cursor != null)
+                return null;
+            var s = top;
+            while (s != null) {
+                if (lo != null && s.key.compareTo(lo) <= 0)
+                    s = s.right;
+                else if (hi != null && s.key.compareTo(hi) >= 0)
+                    s = s.left;
+                else
+                    break;
+            }
+            // 范围内没有可作为拆分点的节点
+            if (s == null)
+                return null;
+            est >>>= 1;
+            sized = false;
+            var prefix = new KeySpliterator(top, lo, s.key, est);
+            // s本身仍属于当前
+            top = s;
+            lo = s.key;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super K> action) {
+            Objects.requireNonNull(action);
+            var iterator = cursor();
+            if (!iterator.hasNext())
+                return false;
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super K> action) {
+            Objects.requireNonNull(action);
+            var iterator = cursor();
+            while (iterator.hasNext())
+                action.accept(iterator.next());
+        }
+
+        private InOrderIterator cursor() {
+            if (cursor == null)
+                cursor = new InOrderIterator(top, lo, hi);
+            return cursor;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (sized ? Spliterator.SIZED : 0) | Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        // 按key的自然顺序排序
+        @Override
+        public Comparator<? super K> getComparator() {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package com.lwohvye.tree;
+
+// 并发有序表（懒惰跳表，Lazy Skip List）
+// 跳表在有序链表上建立多层索引，每个节点以 1/2 的概率晋升到上一层，查找时从最高层开始，逐层向右、向下，期望 O(log n)。
+// 与平衡树相比，跳表的插入、删除只修改前驱节点的指针，不需要旋转，因此锁的范围很小，适合并发。
+//
+// 懒惰跳表（Herlihy、Lev、Luchangco、Shavit 2007，The Art of Multiprocessor Programming 14.3）：
+//  查找：不加锁，也不重试（wait-free）。节点的 marked（逻辑删除）与 fullyLinked（已全部链接）两个标志决定节点是否可见。
+//  插入：先无锁地找到各层的前驱和后继，再只锁住前驱，校验前驱未被删除且仍指向原后继（乐观锁），校验失败则重试。
+//       新节点自底向上链入后才置 fullyLinked，此刻即为插入的线性化点。
+//  删除：先锁住目标节点并置 marked（逻辑删除，删除的线性化点），再锁住各层前驱，校验后自顶向下摘除（物理删除）。
+// 读操作永不阻塞，写操作只锁局部的若干前驱，不同位置的写入可以并行。
+//
+// 对外接口与 BinarySearchTree 一致。由于并发下大小随时可能变化，minimum、maximum 在空表时返回 null，而非断言失败。
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentSkipList<K extends Comparable, V> {
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node<K, V> {
+        private final K key; // 头节点的key为null，视为负无穷；末尾的null视为正无穷
+        private volatile V value;
+        private final AtomicReferenceArray<Node<K, V>> next;
+        private final int topLevel; // 节点所在的层数
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean marked = false;  // 逻辑删除
+        private volatile boolean fullyLinked = false; // 各层均已链接
+
+        private Node(K key, V value, int topLevel) {
+            this.key = key;
+            this.value = value;
+            this.next = new AtomicReferenceArray<>(topLevel);
+            this.topLevel = topLevel;
+        }
+    }
+
+    private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL);
+    private final LongAdder count = new LongAdder();
+
+    public ConcurrentSkipList() {
+        head.fullyLinked = true;
+    }
+
+    // 返回节点个数。并发修改时为近似值
+    public int size() {
+        return count.intValue();
+    }
+
+    public boolean isEmpty() {
+        return head.next.get(0) == null;
+    }
+
+    // 插入一个新的(key, value)数据对。key已存在时更新value
+    @SuppressWarnings("unchecked")
+    public void insert(K key, V value) {
+        var topLevel = randomLevel();
+        Node<K, V>[] preds = new Node[MAX_LEVEL];
+        Node<K, V>[] succs = new Node[MAX_LEVEL];
+        while (true) {
+            var levelFound = find(key, preds, succs);
+            if (levelFound != -1) {
+                var nodeFound = succs[levelFound];
+                if (!nodeFound.marked) {
+                    // 其他线程正在插入该节点，等待其链接完成
+                    while (!nodeFound.fullyLinked)
+                        Thread.onSpinWait();
+                    nodeFound.value = value;
+                    return;
+                }
+                // 节点正在被删除，重试
+                continue;
+            }
+
+            var highestLocked = -1;
+            try {
+                var valid = true;
+                for (int level = 0; valid && level < topLevel; level++) {
+                    var pred = preds[level];
+                    var succ = succs[level];
+                    pred.lock.lock();
+                    highestLocked = level;
+                    // 乐观锁校验：前驱、后继均未被删除，且前驱仍指向后继
+                    valid = !pred.marked && (succ == null || !succ.marked) && pred.next.get(level) == succ;
+                }
+                if (!valid)
+                    continue;
+
+                var newNode = new Node<>(key, value, topLevel);
+                for (int level = 0; level < topLevel; level++)
+                    newNode.next.set(level, succs[level]);
+                for (int level = 0; level < topLevel; level++)
+                    preds[level].next.set(level, newNode);
+                newNode.fullyLinked = true;
+                count.increment();
+                return;
+            } finally {
+                for (int level = 0; level <= highestLocked; level++)
+                    preds[level].lock.unlock();
+            }
+        }
+    }
+
+    // 查看是否存在键key。不加锁
+    public boolean contain(K key) {
+        return getNode(key) != null;
+    }
+
+    // 搜索键key所对应的值。如果这个值不存在, 则返回null。不加锁
+    public V search(K key) {
+        var node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    // 寻找最小的键值，空表返回null
+    public K minimum() {
+        var node = head.next.get(0);
+        while (node != null && (node.marked || !node.fullyLinked))
+            node = node.next.get(0);
+        return node == null ? null : node.key;
+    }
+
+    // 寻找最大的键值，空表返回null
+    public K maximum() {
+        while (true) {
+            var pred = head;
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                var curr = pred.next.get(level);
+                while (curr != null) {
+                    pred = curr;
+                    curr = pred.next.get(level);
+                }
+            }
+            if (pred == head)
+                return null;
+            if (!pred.marked && pred.fullyLinked)
+                return pred.key;
+            // 最后一个节点正在被插入或删除，重新查找
+            Thread.onSpinWait();
+        }
+    }
+
+    // 删除最小值所在节点
+    public void removeMin() {
+        K key;
+        while ((key = minimum()) != null && !removeNode(key)) ;
+    }
+
+    // 删除最大值所在节点
+    public void removeMax() {
+        K key;
+        while ((key = maximum()) != null && !removeNode(key)) ;
+    }
+
+    // 删除键值为key的节点
+    public void remove(K key) {
+        removeNode(key);
+    }
+
+    //********************
+    //* 辅助函数
+    //********************
+
+    // 删除键值为key的节点，返回是否由当前线程删除
+    @SuppressWarnings("unchecked")
+    private boolean removeNode(K key) {
+        Node<K, V>[] preds = new Node[MAX_LEVEL];
+        Node<K, V>[] succs = new Node[MAX_LEVEL];
+        Node<K, V> victim = null;
+        var isMarked = false;
+        var topLevel = -1;
+        while (true) {
+            var levelFound = find(key, preds, succs);
+            if (levelFound != -1)
+                victim = succs[levelFound];
+            // 只删除已全部链接、且在其最高层被找到的节点
+            if (!isMarked && (levelFound == -1 || !victim.fullyLinked || victim.topLevel - 1 != levelFound || victim.marked))
+                return false;
+
+            if (!isMarked) {
+                topLevel = victim.topLevel;
+                victim.lock.lock();
+                if (victim.marked) {
+                    // 已被其他线程删除
+                    victim.lock.unlock();
+                    return false;
+                }
+                victim.marked = true;
+                isMarked = true;
+            }
+
+            var highestLocked = -1;
+            try {
+                var valid = true;
+                for (int level = 0; valid && level < topLevel; level++) {
+                    var pred = preds[level];
+                    pred.lock.lock();
+                    highestLocked = level;
+                    valid = !pred.marked && pred.next.get(level) == victim;
+                }
+                if (!valid)
+                    continue;
+
+                for (int level = topLevel - 1; level >= 0; level--)
+                    preds[level].next.set(level, victim.next.get(level));
+                victim.lock.unlock();
+                count.decrement();
+                return true;
+            } finally {
+                for (int level = 0; level <= highestLocked; level++)
+                    preds[level].lock.unlock();
+            }
+        }
+    }
+
+    // 查找各层中key的前驱与后继，返回key所在的最高层，不存在则返回-1
+    private int find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+        var levelFound = -1;
+        var pred = head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            var curr = pred.next.get(level);
+            while (curr != null && key.compareTo(curr.key) > 0) {
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+            if (levelFound == -1 && curr != null && key.compareTo(curr.key) == 0)
+                levelFound = level;
+            preds[level] = pred;
+            succs[level] = curr;
+        }
+        return levelFound;
+    }
+
+    // 只读查找，不记录前驱，不分配
+    private Node<K, V> getNode(K key) {
+        var pred = head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            var curr = pred.next.get(level);
+            while (curr != null) {
+                int cmp = key.compareTo(curr.key);
+                if (cmp == 0)
+                    return curr.fullyLinked && !curr.marked ? curr : null;
+                if (cmp < 0)
+                    break;
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+        }
+        return null;
+    }
+
+    // 随机层数，第 i 层的概率为 1/2^i
+    private static int randomLevel() {
+        return Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1))) + 1;
+    }
+}
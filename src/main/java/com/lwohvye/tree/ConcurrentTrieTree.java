@@ -0,0 +1,113 @@
+package com.lwohvye.tree;
+
+// 并发字典树：读无锁，写时复制（Copy-On-Write）
+// TrieTree 的节点用 HashMap 存子节点，insert 时并发读取 HashMap 是不安全的。这里的做法：
+//  读：从 volatile 的 root 取得一个快照，快照中的节点一经发布就不再修改，遍历期间无需任何锁，也不会看到写了一半的状态。
+//  写：路径复制（Path Copying）。插入一个单词时，只复制从根到该单词结尾的路径上的节点，其余子树与旧版本共享，最后原子地替换 root。
+//     写操作之间用锁串行。批量插入时，同一批中新建/复制出的节点尚未发布，可以原地修改，整批只发布一次新的 root，
+//     公共前缀上的节点也只复制一次。
+// 旧版本在没有读者引用后由GC回收。search 的语义与 TrieTree 相同。
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentTrieTree {
+    private static final char[] EMPTY_CHARS = new char[0];
+    private static final TrieNode[] EMPTY_CHILDREN = new TrieNode[0];
+
+    private static final class TrieNode {
+        private String word;
+        private char[] chars;   // 子节点对应的字符，升序
+        private TrieNode[] children;
+        // 创建或复制该节点的那一批写操作的标识。与当前批次相同，说明节点尚未发布，可以原地修改
+        private Object owner;
+
+        private TrieNode(String word, char[] chars, TrieNode[] children, Object owner) {
+            this.word = word;
+            this.chars = chars;
+            this.children = children;
+            this.owner = owner;
+        }
+    }
+
+    private volatile TrieNode root = new TrieNode(null, EMPTY_CHARS, EMPTY_CHILDREN, null);
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // 无锁查找：路径不存在返回""，路径存在但不是单词结尾返回null，否则返回该单词
+    public String search(String prefix) {
+        return search(root, prefix);
+    }
+
+    public void insert(String word) {
+        insertAll(List.of(word));
+    }
+
+    // 批量插入，整批对读者一次性可见
+    public void insertAll(Iterable<String> words) {
+        writeLock.lock();
+        try {
+            var owner = new Object();
+            var newRoot = root;
+            for (var word : words)
+                newRoot = insert(newRoot, word, owner);
+            root = newRoot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 在以root为根的版本上插入word，返回新版本的根。未发布的节点原地修改，已发布的节点先复制
+    private TrieNode insert(TrieNode root, String word, Object owner) {
+        if (word.equals(search(root, word)))
+            return root;
+        var newRoot = editable(root, owner);
+        var node = newRoot;
+        for (int i = 0; i < word.length(); i++) {
+            var c = word.charAt(i);
+            var index = Arrays.binarySearch(node.chars, c);
+            TrieNode child;
+            if (index >= 0) {
+                child = editable(node.children[index], owner);
+                node.children[index] = child;
+            } else {
+                child = new TrieNode(null, EMPTY_CHARS, EMPTY_CHILDREN, owner);
+                addChild(node, -(index + 1), c, child);
+            }
+            node = child;
+        }
+        node.word = word;
+        return newRoot;
+    }
+
+    private static String search(TrieNode node, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            var index = Arrays.binarySearch(node.chars, prefix.charAt(i));
+            if (index < 0)
+                return "";
+            node = node.children[index];
+        }
+        return node.word;
+    }
+
+    private static TrieNode editable(TrieNode node, Object owner) {
+        if (node.owner == owner)
+            return node;
+        return new TrieNode(node.word, node.chars.clone(), node.children.clone(), owner);
+    }
+
+    // node为本批次所有，可以直接替换其数组
+    private static void addChild(TrieNode node, int index, char c, TrieNode child) {
+        var size = node.chars.length;
+        var chars = new char[size + 1];
+        var children = new TrieNode[size + 1];
+        System.arraycopy(node.chars, 0, chars, 0, index);
+        System.arraycopy(node.children, 0, children, 0, index);
+        chars[index] = c;
+        children[index] = child;
+        System.arraycopy(node.chars, index, chars, index + 1, size - index);
+        System.arraycopy(node.children, index, children, index + 1, size - index);
+        node.chars = chars;
+        node.children = children;
+    }
+}
@@ -0,0 +1,325 @@
+package com.lwohvye.tree;
+
+// int -> int 的平衡二叉搜索树（AVL），节点池基于并行的基本类型数组
+// BinarySearchTree<K extends Comparable, V> 中每个键值都要装箱，每个节点都是一个对象，大量数据时对象头与GC开销占了大头。
+// 这里把节点拆成若干并行数组，节点即数组下标：
+//  keys[i]、values[i]：键、值
+//  left[i]、right[i]：左右子节点的下标，0 表示空（下标0为哨兵，不存放数据，其高度为0）
+//  height[i]：子树高度，AVL树高不超过 1.44 log n，用byte足够
+// 删除的节点通过 left[] 串成空闲链表，插入时优先复用。只有数组扩容时才会分配内存，插入、查找本身不产生任何对象。
+// 平衡方式与 AVLTree 相同，各操作均为迭代实现，查找路径记录在复用的 int[] 中。非线程安全。
+
+import java.util.Arrays;
+
+public class IntIntTree {
+    private static final int NIL = 0;
+    // AVL树高上界 1.44 log2(n + 2)，n 不超过 int 范围时小于 48
+    private static final int MAX_HEIGHT = 48;
+
+    private int[] keys;
+    private int[] values;
+    private int[] left;
+    private int[] right;
+    private byte[] height;
+
+    private int root = NIL;
+    private int count;  // 树中的节点个数
+    private int next = 1;   // 下一个从未使用过的下标
+    private int free = NIL; // 空闲链表头，通过 left[] 串联
+    private final int[] path = new int[MAX_HEIGHT];
+
+    public IntIntTree() {
+        this(16);
+    }
+
+    public IntIntTree(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        var capacity = initialCapacity + 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        height = new byte[capacity];
+    }
+
+    // 返回节点个数
+    public int size() {
+        return count;
+    }
+
+    // 返回是否为空
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // 清空。保留已分配的数组，后续插入不再分配
+    public void clear() {
+        root = NIL;
+        count = 0;
+        next = 1;
+        free = NIL;
+    }
+
+    // 插入一个新的(key, value)数据对。key已存在时更新value
+    public void insert(int key, int value) {
+        if (root == NIL) {
+            root = newNode(key, value);
+            return;
+        }
+
+        var depth = 0;
+        var node = root;
+        while (true) {
+            var nodeKey = keys[node];
+            if (key == nodeKey) {
+                values[node] = value;
+                return;
+            }
+            path[depth++] = node;
+            if (key < nodeKey) {
+                if (left[node] == NIL) {
+                    // newNode可能扩容、替换left数组，必须先创建节点再赋值
+                    var created = newNode(key, value);
+                    left[node] = created;
+                    break;
+                }
+                node = left[node];
+            } else {
+                if (right[node] == NIL) {
+                    var created = newNode(key, value);
+                    right[node] = created;
+                    break;
+                }
+                node = right[node];
+            }
+        }
+        rebalancePath(depth);
+    }
+
+    // 查看是否存在键key
+    public boolean contain(int key) {
+        return getNode(key) != NIL;
+    }
+
+    // 搜索键key所对应的值。如果不存在, 则返回defaultValue
+    public int search(int key, int defaultValue) {
+        var node = getNode(key);
+        return node == NIL ? defaultValue : values[node];
+    }
+
+    // 寻找最小的键值
+    public int minimum() {
+        assert count != 0;
+        var node = root;
+        while (left[node] != NIL)
+            node = left[node];
+        return keys[node];
+    }
+
+    // 寻找最大的键值
+    public int maximum() {
+        assert count != 0;
+        var node = root;
+        while (right[node] != NIL)
+            node = right[node];
+        return keys[node];
+    }
+
+    // 删除最小值所在节点
+    public void removeMin() {
+        if (root != NIL)
+            remove(minimum());
+    }
+
+    // 删除最大值所在节点
+    public void removeMax() {
+        if (root != NIL)
+            remove(maximum());
+    }
+
+    // 删除键值为key的节点
+    public void remove(int key) {
+        var depth = 0;
+        var node = root;
+        while (node != NIL) {
+            var nodeKey = keys[node];
+            if (key == nodeKey)
+                break;
+            path[depth++] = node;
+            node = key < nodeKey ? left[node] : right[node];
+        }
+        // 不存在
+        if (node == NIL)
+            return;
+
+        // 左右子树均不为空：用后继的键值顶替，转为删除后继
+        if (left[node] != NIL && right[node] != NIL) {
+            path[depth++] = node;
+            var successor = right[node];
+            while (left[successor] != NIL) {
+                path[depth++] = successor;
+                successor = left[successor];
+            }
+            keys[node] = keys[successor];
+            values[node] = values[successor];
+            node = successor;
+        }
+
+        // 此时node至多有一个子节点，用该子节点顶替node的位置
+        var child = left[node] != NIL ? left[node] : right[node];
+        if (depth == 0)
+            root = child;
+        else {
+            var parent = path[depth - 1];
+            if (left[parent] == node)
+                left[parent] = child;
+            else
+                right[parent] = child;
+        }
+        freeNode(node);
+
+        rebalancePath(depth);
+    }
+
+    //********************
+    //* 辅助函数
+    //********************
+
+    // 校验是否为合法的AVL树
+    public boolean isBalanced() {
+        var stack = new int[MAX_HEIGHT];
+        var top = 0;
+        var node = root;
+        var hasPrev = false;
+        var prev = 0;
+        while (node != NIL || top > 0) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node];
+            }
+            node = stack[--top];
+            if (hasPrev && keys[node] <= prev)
+                return false;
+            if (Math.abs(height[left[node]] - height[right[node]]) > 1)
+                return false;
+            if (height[node] != Math.max(height[left[node]], height[right[node]]) + 1)
+                return false;
+            hasPrev = true;
+            prev = keys[node];
+            node = right[node];
+        }
+        return true;
+    }
+
+    private int getNode(int key) {
+        var node = root;
+        while (node != NIL) {
+            var nodeKey = keys[node];
+            if (key == nodeKey)
+                return node;
+            node = key < nodeKey ? left[node] : right[node];
+        }
+        return NIL;
+    }
+
+    // 从空闲链表或未使用的区域取一个节点
+    private int newNode(int key, int value) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (next == keys.length)
+                grow();
+            node = next++;
+        }
+        keys[node] = key;
+        values[node] = value;
+        left[node] = right[node] = NIL;
+        height[node] = 1;
+        count++;
+        return node;
+    }
+
+    // 放回空闲链表
+    private void freeNode(int node) {
+        left[node] = free;
+        right[node] = NIL;
+        height[node] = 0;
+        free = node;
+        count--;
+    }
+
+    private void grow() {
+        var capacity = keys.length + (keys.length >> 1) + 1;
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        height = Arrays.copyOf(height, capacity);
+    }
+
+    // 沿路径自底向上维护高度、恢复平衡，并把旋转后的子树根挂回父节点
+    private void rebalancePath(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            var node = path[i];
+            var balanced = rebalance(node);
+            if (balanced == node)
+                continue;
+            if (i == 0)
+                root = balanced;
+            else {
+                var parent = path[i - 1];
+                if (left[parent] == node)
+                    left[parent] = balanced;
+                else
+                    right[parent] = balanced;
+            }
+        }
+    }
+
+    private int rebalance(int node) {
+        updateHeight(node);
+        var balanceFactor = height[left[node]] - height[right[node]];
+        if (balanceFactor > 1) {
+            var l = left[node];
+            // LR
+            if (height[left[l]] < height[right[l]])
+                left[node] = rotateLeft(l);
+            // LL
+            return rotateRight(node);
+        }
+        if (balanceFactor < -1) {
+            var r = right[node];
+            // RL
+            if (height[right[r]] < height[left[r]])
+                right[node] = rotateRight(r);
+            // RR
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateRight(int y) {
+        var x = left[y];
+        left[y] = right[x];
+        right[x] = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    private int rotateLeft(int y) {
+        var x = right[y];
+        right[y] = left[x];
+        left[x] = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    private void updateHeight(int node) {
+        height[node] = (byte) (Math.max(height[left[node]], height[right[node]]) + 1);
+    }
+}
@@ -0,0 +1,187 @@
+package com.lwohvye.tree;
+
+// 内存映射的只读字典树
+// 把 TrieTree 序列化为紧凑的二进制文件，之后直接在映射到内存的文件上查找，不需要反序列化，也不占用堆：
+//  启动时只需 mmap，与字典大小无关，页面在第一次访问时才由操作系统加载。
+//  同一台机器上的多个JVM映射同一个文件时共享操作系统的页缓存，而不是各自在堆中持有一份。
+// 包外通过 write(Iterable<String>, Path) 由单词列表生成文件，包内也可以直接序列化已有的 TrieTree。
+//
+// 文件格式（大端序）：
+//  头部 16 字节：魔数 "TRIE"、版本号、单词数、节点数
+//  之后按 BFS 顺序依次存放各节点，根节点紧跟在头部之后：
+//   int   标志与子节点数：最高位表示是否为单词结尾，低 31 位为子节点数 n
+//   char  n 个子节点对应的字符，升序，查找时二分
+//   填充到 4 字节对齐
+//   int   n 个子节点的偏移量（从文件开头算起）
+// 偏移量为int，单个文件不超过 2GB，这也是单个 MappedByteBuffer 的上限。
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+public class MappedTrie {
+    private static final int MAGIC = 0x54524945; // "TRIE"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int WORD_FLAG = 0x80000000;
+
+    private final ByteBuffer buffer;
+    private final int wordCount;
+    private final int nodeCount;
+
+    private MappedTrie(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("not a serialized trie");
+        if (buffer.getInt(4) != VERSION)
+            throw new IllegalArgumentException("unsupported trie version: " + buffer.getInt(4));
+        this.buffer = buffer;
+        this.wordCount = buffer.getInt(8);
+        this.nodeCount = buffer.getInt(12);
+    }
+
+    // 只读映射文件。映射在返回的对象被回收时解除
+    public static MappedTrie open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedTrie(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // 由单词列表构建字典树并写入file，供包外生成文件
+    public static void write(Iterable<String> words, Path file) throws IOException {
+        var tree = new TrieTree(new TrieNode());
+        for (var word : words)
+            tree.insert(word);
+        write(tree, file);
+    }
+
+    // 把tree序列化到file。先遍历一次算出文件大小，再映射文件按 BFS 顺序写入
+    // BFS 中节点的写入顺序与入队顺序一致，所以子节点入队时就能确定其偏移量
+    // 其他进程可能正映射着file，原地截断会使其下次访问时收到 SIGBUS。所以先写入同一目录下的临时文件，落盘后原子地重命名为file，
+    // 已有的映射仍指向旧文件，继续提供旧的字典，之后 open 的才看到新的
+    // 与 TrieTree 相同，仅在包内可见
+    static void write(TrieTree tree, Path file) throws IOException {
+        var queue = new ArrayDeque<TrieNode>();
+        queue.offer(tree.root);
+        long total = HEADER_SIZE;
+        var wordCount = 0;
+        var nodeCount = 0;
+        while (!queue.isEmpty()) {
+            var node = queue.poll();
+            total += nodeSize(node.next.size());
+            nodeCount++;
+            if (node.word != null)
+                wordCount++;
+            queue.addAll(node.next.values());
+        }
+        if (total > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("trie too large to map: " + total + " bytes");
+
+        var dir = file.toAbsolutePath().getParent();
+        var temp = createTempFile(dir, file);
+        try {
+            writeNodes(tree, temp, total, wordCount, nodeCount);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // 按 BFS 顺序把各节点写入已创建的空文件file，写完后落盘
+    // 在dir中创建临时文件。createTempFile 默认的权限为 0600，重命名后其他用户的进程将无法映射，
+    // 所以沿用file已有的权限，file不存在时为 rw-r--r--。umask 可能削减创建时指定的权限，创建后再显式设置一次
+    private static Path createTempFile(Path dir, Path file) throws IOException {
+        var prefix = file.getFileName().toString();
+        if (!dir.getFileSystem().supportedFileAttributeViews().contains("posix"))
+            return Files.createTempFile(dir, prefix, ".tmp");
+        var permissions = Files.exists(file) ? Files.getPosixFilePermissions(file) : PosixFilePermissions.fromString("rw-r--r--");
+        var temp = Files.createTempFile(dir, prefix, ".tmp", PosixFilePermissions.asFileAttribute(permissions));
+        Files.setPosixFilePermissions(temp, permissions);
+        return temp;
+    }
+
+    private static void writeNodes(TrieTree tree, Path file, long total, int wordCount, int nodeCount) throws IOException {
+        var queue = new ArrayDeque<TrieNode>();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            out.putInt(MAGIC).putInt(VERSION).putInt(wordCount).putInt(nodeCount);
+            var nextOffset = HEADER_SIZE + nodeSize(tree.root.next.size());
+            queue.offer(tree.root);
+            while (!queue.isEmpty()) {
+                var node = queue.poll();
+                var n = node.next.size();
+                var chars = new char[n];
+                var i = 0;
+                for (var c : node.next.keySet())
+                    chars[i++] = c;
+                Arrays.sort(chars);
+
+                out.putInt(node.word != null ? n | WORD_FLAG : n);
+                for (var c : chars)
+                    out.putChar(c);
+                if ((n & 1) == 1)
+                    out.putChar((char) 0);
+                for (var c : chars) {
+                    var child = node.next.get(c);
+                    out.putInt(nextOffset);
+                    nextOffset += nodeSize(child.next.size());
+                    queue.offer(child);
+                }
+            }
+            out.force();
+        }
+    }
+
+    // 单词数
+    public int size() {
+        return wordCount;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    // 与 TrieTree.search 相同：路径不存在返回""，路径存在但不是单词结尾返回null，否则返回该单词
+    // 只使用绝对位置的读取，不修改buffer的状态，可以被多个线程同时调用
+    public String search(String prefix) {
+        var node = HEADER_SIZE;
+        for (int i = 0; i < prefix.length(); i++) {
+            var n = buffer.getInt(node) & ~WORD_FLAG;
+            var index = binarySearch(node + 4, n, prefix.charAt(i));
+            if (index < 0)
+                return "";
+            node = buffer.getInt(offsetsStart(node, n) + 4 * index);
+        }
+        return (buffer.getInt(node) & WORD_FLAG) != 0 ? prefix : null;
+    }
+
+    // 在从start开始的n个char中二分查找key
+    private int binarySearch(int start, int n, char key) {
+        int low = 0, high = n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midVal = buffer.getChar(start + 2 * mid);
+            if (midVal < key)
+                low = mid + 1;
+            else if (midVal > key)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    private static int offsetsStart(int node, int n) {
+        return node + 4 + ((2 * n + 3) & ~3);
+    }
+
+    private static int nodeSize(int n) {
+        return 4 + ((2 * n + 3) & ~3) + 4 * n;
+    }
+}
@@ -0,0 +1,112 @@
+package com.lwohvye.tree;
+
+import java.util.Arrays;
+
+// 基数树（Radix Tree，压缩前缀树）
+// 与 TrieTree 的接口、语义相同，但更省内存：
+//  1、路径压缩：只有一个子节点且不是单词结尾的节点链被合并成一条边，边上的标签为一段字符，节点数不超过单词数的2倍。
+//  2、子节点用两个按首字符排序的数组存放（firsts、children），二分查找。不再为每个节点分配HashMap，也不会对字符装箱。
+//     与 TrieNode[26] 不同，支持完整的 char 范围，且稀疏时不浪费空间。
+//  3、不在节点上保存单词本身，只记录是否为单词结尾。search 命中时，路径上的字符即为传入的前缀，直接返回它。
+// 插入时若新单词与某条边只有部分公共前缀，则在公共前缀处拆分该边。
+public class RadixTrie {
+    private static final char[] EMPTY_LABEL = new char[0];
+    private static final RadixTrieNode[] EMPTY_CHILDREN = new RadixTrieNode[0];
+
+    private static final class RadixTrieNode {
+        private char[] label;   // 从父节点到该节点的边上的字符
+        private boolean isWord; // 是否为某个单词的结尾
+        private char[] firsts = EMPTY_LABEL;    // 各子节点边标签的首字符，升序
+        private RadixTrieNode[] children = EMPTY_CHILDREN;
+
+        private RadixTrieNode(char[] label) {
+            this.label = label;
+        }
+    }
+
+    private final RadixTrieNode root = new RadixTrieNode(EMPTY_LABEL);
+    private int count;  // 单词个数
+
+    // 返回单词个数
+    public int size() {
+        return count;
+    }
+
+    public void insert(String word) {
+        var node = root;
+        var i = 0;
+        while (i < word.length()) {
+            var index = Arrays.binarySearch(node.firsts, word.charAt(i));
+            if (index < 0) {
+                // 没有以该字符开头的边，剩余部分整体作为一条新边
+                var leaf = new RadixTrieNode(word.substring(i).toCharArray());
+                leaf.isWord = true;
+                addChild(node, -(index + 1), leaf);
+                count++;
+                return;
+            }
+            var child = node.children[index];
+            var label = child.label;
+            var common = commonPrefix(label, word, i);
+            if (common < label.length) {
+                // 只匹配了边的一部分，在公共前缀处拆分
+                var middle = new RadixTrieNode(Arrays.copyOf(label, common));
+                child.label = Arrays.copyOfRange(label, common, label.length);
+                middle.firsts = new char[]{child.label[0]};
+                middle.children = new RadixTrieNode[]{child};
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (!node.isWord) {
+            node.isWord = true;
+            count++;
+        }
+    }
+
+    // 与 TrieTree.search 相同：路径不存在返回""，路径存在但不是单词结尾返回null，否则返回该单词
+    public String search(String prefix) {
+        var node = root;
+        var i = 0;
+        while (i < prefix.length()) {
+            var index = Arrays.binarySearch(node.firsts, prefix.charAt(i));
+            if (index < 0)
+                return "";
+            node = node.children[index];
+            var label = node.label;
+            var common = commonPrefix(label, prefix, i);
+            if (common < label.length) {
+                // 前缀在边的中间结束，对应的是被压缩掉的中间节点，不是单词结尾
+                return i + common == prefix.length() ? null : "";
+            }
+            i += common;
+        }
+        return node.isWord ? prefix : null;
+    }
+
+    // 从word的start位置开始，与label的最长公共前缀长度
+    private static int commonPrefix(char[] label, String word, int start) {
+        var max = Math.min(label.length, word.length() - start);
+        var i = 0;
+        while (i < max && label[i] == word.charAt(start + i))
+            i++;
+        return i;
+    }
+
+    // 按顺序插入子节点。数组按实际大小分配，以插入时的复制换取内存紧凑
+    private static void addChild(RadixTrieNode node, int index, RadixTrieNode child) {
+        var size = node.firsts.length;
+        var firsts = new char[size + 1];
+        var children = new RadixTrieNode[size + 1];
+        System.arraycopy(node.firsts, 0, firsts, 0, index);
+        System.arraycopy(node.children, 0, children, 0, index);
+        firsts[index] = child.label[0];
+        children[index] = child;
+        System.arraycopy(node.firsts, index, firsts, index + 1, size - index);
+        System.arraycopy(node.children, index, children, index + 1, size - index);
+        node.firsts = firsts;
+        node.children = children;
+    }
+}
@@ -1,43 +1,23 @@
 package com.lwohvye.tree;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 
 class TrieNode {
     String word;
     HashMap<Character, TrieNode> next;
+    // 以下两个指针用于 Aho-Corasick 自动机，由 TrieTree.buildFailureLinks 计算
+    TrieNode fail;   // 失配指针：当前路径的最长真后缀所对应的节点
+    TrieNode output; // 输出链接：沿失配指针能到达的最近的单词结尾节点
+    // 以下用于按权重补全
+    long weight;     // 单词的权重，只对单词结尾的节点有意义
+    ArrayList<TrieNode> suggestions; // 子树中权重最高的若干个单词结尾节点，按权重降序，懒加载
 
     public TrieNode() {
         next = new HashMap<>();
     }
 }
 
-class TrieTree {
-    public TrieNode root;
-
-    public TrieTree(TrieNode root) {
-        this.root = root;
-    }
-
-    public void insert(String word) {
-        TrieNode node = root;
-        for (int i = 0; i < word.length(); i++) {
-            if (!node.next.containsKey(word.charAt(i)))
-                node.next.put(word.charAt(i), new TrieNode());
-            node = node.next.get(word.charAt(i));
-        }
-        node.word = word;
-    }
-
-    public String search(String prefix) {
-        var node = root;
-        for (var c : prefix.toCharArray()) {
-            if (!node.next.containsKey(c))
-                return "";
-            node = node.next.get(c);
-        }
-        return node.word;
-    }
-}
 /*
 class TrieNode {
     String word;
@@ -0,0 +1,221 @@
+package com.lwohvye.tree;
+
+import java.nio.CharBuffer;
+import java.util.*;
+import java.util.function.ObjLongConsumer;
+
+// Aho-Corasick 多模式匹配：在 Trie 上加失配指针，一次扫描文本即可找出所有单词的所有出现位置，O(文本长度 + 匹配数)
+//  失配指针：与 KMP 的 next 数组类似，当前字符无法继续向下匹配时，跳到当前路径最长的、同时也是某条 Trie 路径的真后缀，而不是回到根重新开始。
+//  输出链接：某个节点匹配成功时，其路径的后缀也可能是单词（如 she 中的 he），沿输出链接可以只访问这些单词结尾的节点。
+//  两者通过按层 BFS 计算，子节点的失配指针由父节点的失配指针推出。
+//
+// 按权重的前缀补全：每个节点缓存其子树中权重最高的 suggestionLimit 个单词，topK 只需走到前缀节点，直接读缓存，O(前缀长度 + k)
+//  新增单词或权重变大：路径上的每个节点，若该单词能进入其缓存，则插入并淘汰末尾。
+//  权重变小：原本在缓存中的位置可能被子树中的其他单词取代，自底向上用子节点的缓存重新合并出该节点的缓存。
+//  子节点的缓存已包含其子树的前 suggestionLimit 名，所以合并子节点的缓存即可得到当前节点的前 suggestionLimit 名。
+class TrieTree {
+    private static final Comparator<TrieNode> BY_WEIGHT = Comparator.<TrieNode>comparingLong(node -> node.weight).reversed()
+            .thenComparing(node -> node.word);
+
+    public TrieNode root;
+    private boolean built; // 失配指针是否与当前的 Trie 一致，insert 后需要重新计算
+    private final int suggestionLimit; // 每个节点缓存的补全个数上限，也是 topK 中k的上限
+
+    public TrieTree(TrieNode root) {
+        this(root, 10);
+    }
+
+    public TrieTree(TrieNode root, int suggestionLimit) {
+        if (suggestionLimit <= 0)
+            throw new IllegalArgumentException("suggestionLimit must be positive: " + suggestionLimit);
+        this.root = root;
+        this.suggestionLimit = suggestionLimit;
+    }
+
+    // 新单词的权重为0，已存在的单词权重不变
+    public void insert(String word) {
+        TrieNode node = root;
+        for (int i = 0; i < word.length(); i++) {
+            if (!node.next.containsKey(word.charAt(i)))
+                node.next.put(word.charAt(i), new TrieNode());
+            node = node.next.get(word.charAt(i));
+        }
+        if (node.word == null) {
+            node.word = word;
+            offerAlongPath(word, node);
+        }
+        built = false;
+    }
+
+    // 插入单词并设置其权重，单词已存在时更新权重
+    public void insert(String word, long weight) {
+        var path = new ArrayList<TrieNode>(word.length() + 1);
+        var node = root;
+        path.add(node);
+        for (int i = 0; i < word.length(); i++) {
+            node = node.next.computeIfAbsent(word.charAt(i), c -> new TrieNode());
+            path.add(node);
+        }
+        var isNew = node.word == null;
+        var oldWeight = node.weight;
+        node.word = word;
+        node.weight = weight;
+        built = false;
+
+        if (isNew || weight > oldWeight) {
+            for (var pathNode : path)
+                offer(pathNode, node);
+        } else if (weight < oldWeight) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                var pathNode = path.get(i);
+                // 不在该节点的缓存中，也就不会在祖先节点的缓存中
+                if (pathNode.suggestions == null || !pathNode.suggestions.contains(node))
+                    break;
+                rebuildSuggestions(pathNode);
+            }
+        }
+    }
+
+    // 以prefix为前缀、权重最高的k个单词，按权重降序。k不超过suggestionLimit
+    public List<String> topK(String prefix, int k) {
+        if (k < 0 || k > suggestionLimit)
+            throw new IllegalArgumentException("k must be between 0 and " + suggestionLimit + ": " + k);
+        var node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++)
+            node = node.next.get(prefix.charAt(i));
+        if (node == null || node.suggestions == null)
+            return List.of();
+        var suggestions = node.suggestions;
+        var ans = new ArrayList<String>(Math.min(k, suggestions.size()));
+        for (int i = 0; i < k && i < suggestions.size(); i++)
+            ans.add(suggestions.get(i).word);
+        return ans;
+    }
+
+    private void offerAlongPath(String word, TrieNode wordNode) {
+        var node = root;
+        offer(node, wordNode);
+        for (int i = 0; i < word.length(); i++) {
+            node = node.next.get(word.charAt(i));
+            offer(node, wordNode);
+        }
+    }
+
+    // wordNode为新单词或权重变大，尝试放入node的缓存
+    private void offer(TrieNode node, TrieNode wordNode) {
+        if (node.suggestions == null)
+            node.suggestions = new ArrayList<>(Math.min(suggestionLimit, 4));
+        var suggestions = node.suggestions;
+        suggestions.remove(wordNode);
+        var index = 0;
+        while (index < suggestions.size() && BY_WEIGHT.compare(suggestions.get(index), wordNode) < 0)
+            index++;
+        if (index == suggestionLimit)
+            return;
+        suggestions.add(index, wordNode);
+        if (suggestions.size() > suggestionLimit)
+            suggestions.remove(suggestions.size() - 1);
+    }
+
+    // 由自身与子节点的缓存重新合并出node的缓存
+    private void rebuildSuggestions(TrieNode node) {
+        var candidates = new ArrayList<TrieNode>();
+        if (node.word != null)
+            candidates.add(node);
+        for (var child : node.next.values()) {
+            if (child.suggestions != null)
+                candidates.addAll(child.suggestions);
+        }
+        candidates.sort(BY_WEIGHT);
+        if (candidates.size() > suggestionLimit)
+            candidates.subList(suggestionLimit, candidates.size()).clear();
+        node.suggestions = candidates;
+    }
+
+    // 计算失配指针与输出链接（BFS）。search 不依赖它们；searchAll、matcher 在需要时会自动调用
+    public void buildFailureLinks() {
+        var queue = new ArrayDeque<TrieNode>();
+        root.fail = null;
+        root.output = null;
+        for (var child : root.next.values()) {
+            child.fail = root;
+            child.output = null;
+            queue.offer(child);
+        }
+        while (!queue.isEmpty()) {
+            var node = queue.poll();
+            for (var entry : node.next.entrySet()) {
+                char c = entry.getKey();
+                var child = entry.getValue();
+                // 沿父节点的失配指针向上，找到第一个能接受字符c的节点
+                var fail = node.fail;
+                while (fail != null && !fail.next.containsKey(c))
+                    fail = fail.fail;
+                child.fail = fail == null ? root : fail.next.get(c);
+                child.output = child.fail.word != null && child.fail != root ? child.fail : child.fail.output;
+                queue.offer(child);
+            }
+        }
+        built = true;
+    }
+
+    // 找出text中所有单词的所有出现，按结束位置的顺序回调 consumer(单词, 起始下标)
+    public void searchAll(CharSequence text, ObjLongConsumer<String> consumer) {
+        var matcher = matcher();
+        for (int i = 0; i < text.length(); i++)
+            matcher.feed(text.charAt(i), consumer);
+    }
+
+    // 流式匹配，自动机的状态在多次 feed 之间保留，跨越分块边界的单词也能被找到
+    // 创建之后不应再 insert
+    public Matcher matcher() {
+        if (!built)
+            buildFailureLinks();
+        return new Matcher();
+    }
+
+    public class Matcher {
+        private TrieNode state = root;
+        private long position; // 已读入的字符数
+
+        // 读入一个字符，回调以该字符结尾的所有单词
+        public void feed(char c, ObjLongConsumer<String> consumer) {
+            TrieNode next;
+            while ((next = state.next.get(c)) == null && state != root)
+                state = state.fail;
+            state = next == null ? root : next;
+            position++;
+            if (state.word != null && state != root)
+                consumer.accept(state.word, position - state.word.length());
+            for (var out = state.output; out != null; out = out.output)
+                consumer.accept(out.word, position - out.word.length());
+        }
+
+        public void feed(char[] chars, int offset, int length, ObjLongConsumer<String> consumer) {
+            for (int i = offset; i < offset + length; i++)
+                feed(chars[i], consumer);
+        }
+
+        // 读入buffer中剩余的全部字符
+        public void feed(CharBuffer buffer, ObjLongConsumer<String> consumer) {
+            while (buffer.hasRemaining())
+                feed(buffer.get(), consumer);
+        }
+
+        // 回到初始状态，开始匹配新的文本
+        public void reset() {
+            state = root;
+            position = 0;
+        }
+    }
+
+    public String search(String prefix) {
+        var node = root;
+        for (var c : prefix.toCharArray()) {
+            if (!node.next.containsKey(c))
+                return "";
+            node = node.next.get(c);
+        }
+        return node.word;
+    }
+}